@@ -2,6 +2,7 @@ package com.blogpost.app.api;
 
 import com.blogpost.app.annotation.RequiresAuth;
 import com.blogpost.app.annotation.RequiresRole;
+import com.blogpost.app.dto.CursorPage;
 import com.blogpost.app.dto.ErrorResponse;
 import com.blogpost.app.dto.UpdateRoleRequest;
 import com.blogpost.app.dto.UserProfileResponse;
@@ -11,26 +12,31 @@ import com.blogpost.app.entity.User;
 import com.blogpost.app.entity.UserRole;
 import com.blogpost.app.exception.ResourceNotFoundException;
 import com.blogpost.app.repository.CommentRepository;
-import com.blogpost.app.repository.LikeRepository;
-import com.blogpost.app.repository.PostRepository;
+import com.blogpost.app.repository.UserProfileView;
 import com.blogpost.app.repository.UserRepository;
+import com.blogpost.app.likes.LikeIndex;
+import com.blogpost.app.security.PrincipalCache;
+import com.blogpost.app.security.RateLimiter;
+import com.blogpost.app.security.TokenBlacklist;
 import com.blogpost.app.security.UserContext;
+import com.blogpost.app.service.AdminStatsService;
 import com.blogpost.app.service.CommentService;
+import com.blogpost.app.service.PostFeedCache;
 import com.blogpost.app.service.PostService;
 import com.blogpost.app.service.UserService;
+import com.blogpost.app.service.UserStatsService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/admin")
@@ -47,9 +53,6 @@ public class AdminApi {
     @Autowired
     private PostService postService;
 
-    @Autowired
-    private PostRepository postRepository;
-
     @Autowired
     private CommentService commentService;
 
@@ -57,35 +60,49 @@ public class AdminApi {
     private CommentRepository commentRepository;
 
     @Autowired
-    private LikeRepository likeRepository;
+    private UserContext userContext;
 
     @Autowired
-    private UserContext userContext;
+    private PostFeedCache postFeedCache;
+
+    @Autowired
+    private LikeIndex likeIndex;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenBlacklist tokenBlacklist;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
 
     @GetMapping("/users")
     @RequiresAuth
     @RequiresRole(UserRole.ADMIN)
     public ResponseEntity<?> getAllUsers(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime activeSince,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<User> users = userRepository.findAll(pageable);
-
-        Page<UserProfileResponse> response = users.map(user -> UserProfileResponse.builder()
-                .id(user.getId())
-                .userName(user.getUserName())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .avatarUrl(user.getAvatarUrl())
-                .role(user.getRole().name())
-                .createdAt(user.getCreatedAt())
-                .postsCount(postRepository.getByUserId(user.getId()).size())
-                .commentsCount(commentRepository.countByUserId(user.getId()).intValue())
-                .likesCount(likeRepository.countByUserId(user.getId()).intValue())
-                .build());
-
-        return ResponseEntity.ok(response);
+        // sort: createdAt, posts, comments, likes, activity or lastActive (all descending);
+        // pass back nextCursor for the following page, it is only valid with the same sort
+        try {
+            CursorPage<UserProfileResponse> response = userStatsService.findUserProfiles(
+                    role, q, activeSince, sort, cursor, Math.max(1, Math.min(size, 100)));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Bad Request", e.getMessage(), 400));
+        }
     }
 
     @GetMapping("/users/{id}")
@@ -93,18 +110,18 @@ public class AdminApi {
     @RequiresRole(UserRole.ADMIN)
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
         try {
-            User user = userService.getUserById(id);
+            UserProfileView profile = userService.getUserProfile(id);
             UserProfileResponse response = UserProfileResponse.builder()
-                    .id(user.getId())
-                    .userName(user.getUserName())
-                    .firstName(user.getFirstName())
-                    .lastName(user.getLastName())
-                    .avatarUrl(user.getAvatarUrl())
-                    .role(user.getRole().name())
-                    .createdAt(user.getCreatedAt())
-                    .postsCount(postRepository.getByUserId(user.getId()).size())
-                    .commentsCount(commentRepository.countByUserId(user.getId()).intValue())
-                    .likesCount(likeRepository.countByUserId(user.getId()).intValue())
+                    .id(profile.getId())
+                    .userName(profile.getUserName())
+                    .firstName(profile.getFirstName())
+                    .lastName(profile.getLastName())
+                    .avatarUrl(profile.getAvatarUrl())
+                    .role(profile.getRole())
+                    .createdAt(profile.getCreatedAt())
+                    .postsCount(profile.getPostsCount())
+                    .commentsCount(profile.getCommentsCount())
+                    .likesCount(profile.getLikesCount())
                     .build();
 
             return ResponseEntity.ok(response);
@@ -143,6 +160,7 @@ public class AdminApi {
             User user = userService.getUserById(id);
             user.setRole(newRole);
             userRepository.save(user);
+            principalCache.invalidate(id);
 
             logger.info("User {} role updated to {} by admin {}",
                     user.getUserName(), newRole, userContext.getCurrentUsername());
@@ -209,7 +227,7 @@ public class AdminApi {
         }
 
         String commentAuthor = comment.getUser().getUserName();
-        commentRepository.deleteById(id);
+        commentService.deleteComment(id, userContext.getCurrentUserId(), true);
 
         logger.info("Comment by {} deleted by admin {}",
                 commentAuthor, userContext.getCurrentUsername());
@@ -217,17 +235,26 @@ public class AdminApi {
         return ResponseEntity.ok().body("{\"message\": \"Comment deleted successfully\"}");
     }
 
+    @GetMapping("/cache/stats")
+    @RequiresAuth
+    @RequiresRole(UserRole.ADMIN)
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(Map.of("postFeed", postFeedCache.stats(), "likeIndex", likeIndex.stats(),
+                "principal", principalCache.stats(), "tokenBlacklist", tokenBlacklist.stats(),
+                "rateLimitKeys", rateLimiter.stats()));
+    }
+
     @GetMapping("/stats")
     @RequiresAuth
     @RequiresRole(UserRole.ADMIN)
     public ResponseEntity<?> getStats() {
-        long totalUsers = userRepository.count();
-        long totalPosts = postRepository.count();
-        long totalComments = commentRepository.count();
-        long totalLikes = likeRepository.count();
-
-        return ResponseEntity.ok().body(String.format(
-                "{\"totalUsers\": %d, \"totalPosts\": %d, \"totalComments\": %d, \"totalLikes\": %d}",
-                totalUsers, totalPosts, totalComments, totalLikes));
+        return ResponseEntity.ok(adminStatsService.getStats());
+    }
+
+    @GetMapping("/stats/growth")
+    @RequiresAuth
+    @RequiresRole(UserRole.ADMIN)
+    public ResponseEntity<?> getGrowth(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(adminStatsService.getGrowth(days));
     }
 }
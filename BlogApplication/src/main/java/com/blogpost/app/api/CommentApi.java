@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.blogpost.app.annotation.RequiresAuth;
@@ -44,8 +45,14 @@ public class CommentApi {
     }
     
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<CommentResponse>> getCommentsByPostId(@PathVariable Long postId) {
+    public ResponseEntity<?> getCommentsByPostId(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(commentService.getCommentsByPostId(postId, cursor, size));
+            }
             List<CommentResponse> comments = commentService.getCommentsByPostId(postId);
             return ResponseEntity.ok(comments);
         } catch (RuntimeException e) {
@@ -53,6 +60,16 @@ public class CommentApi {
         }
     }
     
+    @GetMapping("/{commentId}/thread")
+    public ResponseEntity<?> getThread(@PathVariable Long commentId) {
+        try {
+            return ResponseEntity.ok(commentService.getThread(commentId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404)
+                    .body(new ErrorResponse("Not Found", e.getMessage(), 404));
+        }
+    }
+    
     @DeleteMapping("/{commentId}")
     @RequiresAuth
     public ResponseEntity<?> deleteComment(@PathVariable Long commentId) {
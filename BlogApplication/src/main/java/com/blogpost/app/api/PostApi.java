@@ -1,9 +1,11 @@
 package com.blogpost.app.api;
 
-import java.util.List;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,15 +16,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import com.blogpost.app.annotation.PublicEndpoint;
 import com.blogpost.app.annotation.RequiresAuth;
 import com.blogpost.app.dto.CommentRequest;
 import com.blogpost.app.dto.CommentResponse;
+import com.blogpost.app.dto.CursorPage;
 import com.blogpost.app.dto.ErrorResponse;
 import com.blogpost.app.dto.LikeRequest;
 import com.blogpost.app.dto.LikeResponse;
 import com.blogpost.app.dto.PostResponse;
 import com.blogpost.app.entity.Post;
+import com.blogpost.app.repository.PostVersion;
 import com.blogpost.app.security.UserContext;
 import com.blogpost.app.service.CommentService;
 import com.blogpost.app.service.LikeService;
@@ -34,6 +41,9 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/Posts")
 public class PostApi {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final Pattern CURSOR_CHARS = Pattern.compile("[A-Za-z0-9_-]*");
     
     @Autowired
     private PostService postService;
@@ -70,7 +80,20 @@ public class PostApi {
     @PublicEndpoint
     public ResponseEntity<PostResponse> getPostById(
             @PathVariable Long id,
-            @RequestParam(required = false) String username) {
+            @RequestParam(required = false) String username,
+            WebRequest request) {
+        PostVersion version = postService.getPostVersion(id);
+        if (version != null) {
+            // The viewer's own like is part of the body, so it has to be part of the tag
+            String etag = version.etag("post");
+            if (username != null) {
+                etag += likeService.isPostLikedByUser(id, username) ? "-liked" : "-unliked";
+            }
+            if (request.checkNotModified(etag, version.lastModified())) {
+                return null;
+            }
+        }
+
         Post post = postService.getPostById(id);
         
         if (post == null) {
@@ -78,18 +101,29 @@ public class PostApi {
         }
         
         PostResponse response = postService.mapToPostResponse(post, username);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
     
+    // Passing "cursor" (empty for the first page) switches a listing to keyset
+    // pagination: the response is a CursorPage with nextCursor and no total count.
     @GetMapping
     @PublicEndpoint
-    public ResponseEntity<Page<PostResponse>> getAllPosts(
+    public ResponseEntity<?> getAllPosts(
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
+        boolean hasTag = tag != null && !tag.trim().isEmpty();
+        if (cursor != null) {
+            CursorPage<PostResponse> posts = hasTag
+                    ? postService.getPostsByTagByCursor(tag.trim(), cursor, size, username)
+                    : postService.getPostsByCursor(cursor, size, username);
+            return ResponseEntity.ok(posts);
+        }
+
         Page<PostResponse> posts;
-        if (tag != null && !tag.trim().isEmpty()) {
+        if (hasTag) {
             posts = postService.getPostsByTag(tag.trim(), page, size, username);
         } else {
             posts = postService.getAllPostsPaginated(page, size, username);
@@ -99,25 +133,42 @@ public class PostApi {
 
     @GetMapping("/search")
     @PublicEndpoint
-    public ResponseEntity<Page<PostResponse>> searchPosts(
+    public ResponseEntity<?> searchPosts(
             @RequestParam String q,
             @RequestParam(required = false) String username,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         if (q == null || q.trim().isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
+        if (cursor != null) {
+            return ResponseEntity.ok(postService.searchPostsByCursor(q.trim(), cursor, size, username));
+        }
         Page<PostResponse> posts = postService.searchPosts(q.trim(), page, size, username);
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/trending")
+    @PublicEndpoint
+    public ResponseEntity<Page<PostResponse>> getTrendingPosts(
+            @RequestParam(required = false) String username,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.getTrendingPosts(page, size, username));
+    }
+
     @GetMapping("/user/{id}")
     @PublicEndpoint
-    public ResponseEntity<Page<PostResponse>> getAllPostsByUserId(
+    public ResponseEntity<?> getAllPostsByUserId(
             @PathVariable Long id,
             @RequestParam(required = false) String username,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
+        if (cursor != null) {
+            return ResponseEntity.ok(postService.getPostsByUserIdByCursor(id, cursor, size, username));
+        }
         Page<PostResponse> posts = postService.getPostsByUserIdPaginated(id, page, size, username);
         return ResponseEntity.ok(posts);
     }
@@ -185,15 +236,39 @@ public class PostApi {
     
     @GetMapping("/{postId}/likes")
     @PublicEndpoint
-    public ResponseEntity<LikeResponse> getLikes(@PathVariable Long postId) {
+    public ResponseEntity<LikeResponse> getLikes(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            WebRequest request) {
+        // The likers come from the database, but the count also includes buffered toggles
+        String page = pageKey(cursor, size);
+        if (page != null && isNotModified(postId,
+                "likes-" + page + "-" + likeService.getPendingLikeDelta(postId), request)) {
+            return null;
+        }
         try {
-            LikeResponse response = likeService.getLikesForPost(postId);
-            return ResponseEntity.ok(response);
+            // Passing "cursor" (empty for the first page) pages the likers newest first
+            LikeResponse response = cursor != null
+                    ? likeService.getLikesForPost(postId, cursor, size)
+                    : likeService.getLikesForPost(postId);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    // Every liker as newline-delimited JSON, streamed without buffering the list
+    @GetMapping(value = "/{postId}/likes", produces = NDJSON)
+    @PublicEndpoint
+    public ResponseEntity<StreamingResponseBody> streamLikes(@PathVariable Long postId) {
+        if (postService.getPostVersion(postId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> likeService.streamLikesForPost(postId, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
     // Comment
     @PostMapping("/{postId}/comments")
     @RequiresAuth
@@ -210,12 +285,51 @@ public class PostApi {
     
     @GetMapping("/{postId}/comments")
     @PublicEndpoint
-    public ResponseEntity<List<CommentResponse>> getComments(@PathVariable Long postId) {
+    public ResponseEntity<?> getComments(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        // No validator: the commenters' profiles are part of the body but not of the post's version
         try {
-            List<CommentResponse> comments = commentService.getCommentsByPostId(postId);
-            return ResponseEntity.ok(comments);
+            // Passing "cursor" (empty for the first page) switches to a CursorPage, newest first
+            Object comments = cursor != null
+                    ? commentService.getCommentsByPostId(postId, cursor, size)
+                    : commentService.getCommentsByPostId(postId);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(comments);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    // Top-level comments, newest first, each with the first "replies" replies of its thread
+    @GetMapping("/{postId}/comments/threads")
+    @PublicEndpoint
+    public ResponseEntity<?> getCommentThreads(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "3") int replies) {
+        try {
+            CursorPage<CommentResponse> threads = commentService.getThreadsByPostId(postId, cursor, size, replies);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(threads);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Identifies the requested page within a tag; null for a cursor no encoder could
+    // have produced, which is left to fail in the service instead
+    private static String pageKey(String cursor, int size) {
+        if (cursor == null) {
+            return "all";
+        }
+        return CURSOR_CHARS.matcher(cursor).matches() ? cursor + "-" + size : null;
+    }
+
+    // Answers If-None-Match / If-Modified-Since from the post's version row alone;
+    // when it returns true the response is already a 304 with validators set.
+    private boolean isNotModified(Long postId, String scope, WebRequest request) {
+        PostVersion version = postService.getPostVersion(postId);
+        return version != null && request.checkNotModified(version.etag(scope), version.lastModified());
+    }
 }
\ No newline at end of file
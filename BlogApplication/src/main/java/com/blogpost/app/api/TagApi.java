@@ -1,16 +1,18 @@
 package com.blogpost.app.api;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.blogpost.app.annotation.PublicEndpoint;
 import com.blogpost.app.annotation.RequiresAuth;
@@ -25,14 +27,17 @@ public class TagApi {
     @Autowired
     private TagService tagService;
 
+    // ?top=N returns the N most used tags (tag cloud) instead of all tags by name
     @GetMapping
     @PublicEndpoint
-    public ResponseEntity<List<TagResponse>> getAllTags() {
-        List<Tag> tags = tagService.getAllTags();
-        List<TagResponse> response = tags.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<TagResponse>> getAllTags(
+            @RequestParam(required = false) Integer top,
+            WebRequest request) {
+        if (request.checkNotModified("tags-" + tagService.getTagsVersion())) {
+            return null;
+        }
+        List<TagResponse> response = top != null ? tagService.getTopTags(top) : tagService.getAllTags();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     @GetMapping("/{slug}")
@@ -55,7 +60,7 @@ public class TagApi {
                 .id(tag.getId())
                 .name(tag.getName())
                 .slug(tag.getSlug())
-                .postsCount(tag.getPostsCount())
+                .postsCount((int) tagService.getPostsCount(tag.getId()))
                 .build();
     }
 
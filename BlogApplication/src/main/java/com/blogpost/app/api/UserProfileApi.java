@@ -8,9 +8,7 @@ import com.blogpost.app.dto.UpdateProfileRequest;
 import com.blogpost.app.dto.UserProfileResponse;
 import com.blogpost.app.entity.User;
 import com.blogpost.app.exception.ResourceNotFoundException;
-import com.blogpost.app.repository.CommentRepository;
-import com.blogpost.app.repository.LikeRepository;
-import com.blogpost.app.repository.PostRepository;
+import com.blogpost.app.repository.UserProfileView;
 import com.blogpost.app.security.UserContext;
 import com.blogpost.app.service.UserService;
 import com.blogpost.app.utils.PasswordHasher;
@@ -29,21 +27,11 @@ public class UserProfileApi {
     @Autowired
     private UserContext userContext;
 
-    @Autowired
-    private PostRepository postRepository;
-
-    @Autowired
-    private CommentRepository commentRepository;
-
-    @Autowired
-    private LikeRepository likeRepository;
-
     @GetMapping("/{id}")
     @PublicEndpoint
     public ResponseEntity<?> getUserProfile(@PathVariable Long id) {
         try {
-            User user = userService.getUserById(id);
-            UserProfileResponse response = mapToProfileResponse(user);
+            UserProfileResponse response = mapToProfileResponse(userService.getUserProfile(id));
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404)
@@ -61,8 +49,7 @@ public class UserProfileApi {
         }
 
         try {
-            User user = userService.getUserById(currentUserId);
-            UserProfileResponse response = mapToProfileResponse(user);
+            UserProfileResponse response = mapToProfileResponse(userService.getUserProfile(currentUserId));
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404)
@@ -92,8 +79,8 @@ public class UserProfileApi {
                 user.setAvatarUrl(request.getAvatarUrl());
             }
 
-            User updated = userService.updateUser(currentUserId, user);
-            UserProfileResponse response = mapToProfileResponse(updated);
+            userService.updateUser(currentUserId, user);
+            UserProfileResponse response = mapToProfileResponse(userService.getUserProfile(currentUserId));
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404)
@@ -133,22 +120,18 @@ public class UserProfileApi {
         }
     }
 
-    private UserProfileResponse mapToProfileResponse(User user) {
-        int postsCount = postRepository.getByUserId(user.getId()).size();
-        Long commentsCount = commentRepository.countByUserId(user.getId());
-        Long likesCount = likeRepository.countByUserId(user.getId());
-
+    private UserProfileResponse mapToProfileResponse(UserProfileView profile) {
         return UserProfileResponse.builder()
-                .id(user.getId())
-                .userName(user.getUserName())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .avatarUrl(user.getAvatarUrl())
-                .role(user.getRole().name())
-                .createdAt(user.getCreatedAt())
-                .postsCount(postsCount)
-                .commentsCount(commentsCount != null ? commentsCount.intValue() : 0)
-                .likesCount(likesCount != null ? likesCount.intValue() : 0)
+                .id(profile.getId())
+                .userName(profile.getUserName())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .avatarUrl(profile.getAvatarUrl())
+                .role(profile.getRole())
+                .createdAt(profile.getCreatedAt())
+                .postsCount(profile.getPostsCount())
+                .commentsCount(profile.getCommentsCount())
+                .likesCount(profile.getLikesCount())
                 .build();
     }
 }
@@ -17,4 +17,7 @@ public class CommentRequest {
     
     @NotNull(message = "Username is required")
     private String username;
+
+    // Set when replying to another comment
+    private Long parentId;
 }
\ No newline at end of file
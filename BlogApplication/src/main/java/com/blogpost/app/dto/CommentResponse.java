@@ -1,6 +1,7 @@
 package com.blogpost.app.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +17,10 @@ public class CommentResponse {
     private String content;
     private UserResponse user;
     private LocalDateTime createdAt;
+    private Long parentId;
+    private int depth;
+    private Long replyCount;
+    private List<CommentResponse> replies;
     
     @Data
     @NoArgsConstructor
@@ -16,4 +16,5 @@ public class LikeResponse {
     private List<String> users;
     private boolean isLiked;
     private Long likesCount;
+    private String nextCursor;
 }
\ No newline at end of file
@@ -27,11 +27,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EqualsAndHashCode(exclude = {"post", "user"})
+@EqualsAndHashCode(exclude = {"post", "user", "parent"})
 @Table(name = "comments", indexes = {
     @Index(name = "idx_comment_post_id", columnList = "post_id"),
     @Index(name = "idx_comment_user_id", columnList = "user_id"),
-    @Index(name = "idx_comment_created_at", columnList = "created_at")
+    @Index(name = "idx_comment_created_at", columnList = "created_at"),
+    @Index(name = "idx_comment_post_created", columnList = "post_id, created_at, id"),
+    @Index(name = "idx_comment_root_id", columnList = "root_id")
 })
 public class Comment {
     @Id
@@ -51,7 +53,32 @@ public class Comment {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Post post;
     
+    // Replies: parent is the comment replied to, rootId the top-level comment of the
+    // thread (null for top-level comments) and path the zero-padded ids of all
+    // ancestors, root first, each followed by '/'. path || padded id sorts a thread
+    // depth-first and "path LIKE prefix%" selects a subtree.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private Comment parent;
+
+    @Column(name = "root_id")
+    private Long rootId;
+
+    @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    @Builder.Default
+    private int depth = 0;
+
+    @Column(nullable = false, columnDefinition = "TEXT DEFAULT ''")
+    @Builder.Default
+    private String path = "";
+
     @Column(name = "created_at", updatable = false)
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    /** Path prefix shared by every descendant of this comment. */
+    public String childPath() {
+        return path + String.format("%019d", id) + "/";
+    }
 }
@@ -0,0 +1,45 @@
+package com.blogpost.app.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Site-wide totals as of the last rollup of a day. Growth for a day is the
+ * difference from the previous day's row, so the dashboard never scans the
+ * underlying tables.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "daily_stats")
+public class DailyStats {
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(name = "users_total", nullable = false)
+    private long usersTotal;
+
+    @Column(name = "posts_total", nullable = false)
+    private long postsTotal;
+
+    @Column(name = "comments_total", nullable = false)
+    private long commentsTotal;
+
+    @Column(name = "likes_total", nullable = false)
+    private long likesTotal;
+
+    @Column(name = "captured_at", nullable = false)
+    private LocalDateTime capturedAt;
+}
@@ -35,7 +35,8 @@ import lombok.NoArgsConstructor;
     },
     indexes = {
         @Index(name = "idx_like_post_id", columnList = "post_id"),
-        @Index(name = "idx_like_user_id", columnList = "user_id")
+        @Index(name = "idx_like_user_id", columnList = "user_id"),
+        @Index(name = "idx_like_post_created", columnList = "post_id, created_at, id")
     }
 )
 public class Like {
@@ -81,13 +81,19 @@ public class Post {
     @Column(name = "updated_at")
     @UpdateTimestamp
     private LocalDateTime updatedAt;
-    
-    // Helper methods to get counts
-    public int getLikesCount() {
-        return likes != null ? likes.size() : 0;
-    }
-    
-    public int getCommentsCount() {
-        return comments != null ? comments.size() : 0;
-    }
+
+    // Denormalized counters; never written by entity updates, only by the atomic
+    // increments in PostRepository so concurrent likes/comments are not lost
+    @Column(name = "likes_count", nullable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0")
+    @Builder.Default
+    private int likesCount = 0;
+
+    @Column(name = "comments_count", nullable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0")
+    @Builder.Default
+    private int commentsCount = 0;
+
+    // Bumped together with the counters; with updatedAt it versions everything a post's
+    // detail, likes and comments responses show (used for ETag / Last-Modified)
+    @Column(name = "last_activity_at", updatable = false)
+    private LocalDateTime lastActivityAt;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.blogpost.app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cluster-wide GCRA state for one "policy:key", written by every node's periodic
+ * sync when rate-limit.cluster.enabled=true. A row whose TAT has passed carries
+ * no information and is deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "rate_limit_state", indexes = {
+    @Index(name = "idx_rate_limit_state_tat", columnList = "tat_micros")
+})
+public class RateLimitState {
+    @Id
+    @Column(name = "rate_key", columnDefinition = "TEXT")
+    private String rateKey;
+
+    @Column(name = "tat_micros", nullable = false)
+    private long tatMicros;
+}
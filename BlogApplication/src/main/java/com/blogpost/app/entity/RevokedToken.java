@@ -0,0 +1,34 @@
+package com.blogpost.app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A token invalidated before its expiry, shared by every node when
+ * security.revocation.store=postgres. Only a hex SHA-256 prefix of the token
+ * is stored; rows are deleted once the token would have expired anyway.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at_millis")
+})
+public class RevokedToken {
+    @Id
+    @Column(name = "token_digest", length = 32)
+    private String tokenDigest;
+
+    // Epoch milliseconds, as in the token's exp claim
+    @Column(name = "expires_at_millis", nullable = false)
+    private long expiresAtMillis;
+}
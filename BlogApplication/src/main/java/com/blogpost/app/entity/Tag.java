@@ -47,8 +47,4 @@ public class Tag {
     @Column(name = "created_at", updatable = false)
     @CreationTimestamp
     private LocalDateTime createdAt;
-
-    public int getPostsCount() {
-        return posts != null ? posts.size() : 0;
-    }
 }
@@ -0,0 +1,34 @@
+package com.blogpost.app.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Periodic snapshot of the in-memory trending ranking: the decayed score of a
+ * post as of scoredAt. Only read back at startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "trending_scores")
+public class TrendingScore {
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "scored_at", nullable = false)
+    private LocalDateTime scoredAt;
+}
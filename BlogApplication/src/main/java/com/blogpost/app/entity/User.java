@@ -25,7 +25,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Table(name = "users", indexes = {
-    @Index(name = "idx_user_username", columnList = "userName")
+    @Index(name = "idx_user_username", columnList = "userName"),
+    @Index(name = "idx_user_created_at_id", columnList = "created_at, id")
 })
 public class User {
 	@Id
@@ -0,0 +1,49 @@
+package com.blogpost.app.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user activity counters, kept in step with posts, comments and likes by the
+ * services in the same transaction as the write (see UserStatsRepository.adjust).
+ * Every user has a row, created at sign-up (or by the backfill for older users),
+ * with signing up counted as the first activity. Each sort of the admin listing
+ * has an index ending in user_id, its keyset tiebreaker.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_stats", indexes = {
+    @Index(name = "idx_user_stats_last_active_user", columnList = "last_active_at, user_id"),
+    @Index(name = "idx_user_stats_posts_user", columnList = "posts_count, user_id"),
+    @Index(name = "idx_user_stats_comments_user", columnList = "comments_count, user_id"),
+    @Index(name = "idx_user_stats_likes_user", columnList = "likes_given_count, user_id")
+})
+public class UserStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "posts_count", nullable = false)
+    private int postsCount;
+
+    @Column(name = "comments_count", nullable = false)
+    private int commentsCount;
+
+    @Column(name = "likes_given_count", nullable = false)
+    private int likesGivenCount;
+
+    @Column(name = "last_active_at")
+    private LocalDateTime lastActiveAt;
+}
@@ -0,0 +1,28 @@
+package com.blogpost.app.event;
+
+/**
+ * Published by the services whenever a post or its engagement changes.
+ * Listeners that maintain derived state (search index, caches, rankings)
+ * react after the originating transaction commits. count is the number of
+ * likes or comments the change covers, e.g. a deleted comment and its replies.
+ */
+public record PostChangedEvent(Long postId, Type type, Long userId, int count) {
+
+    public PostChangedEvent(Long postId, Type type, Long userId) {
+        this(postId, type, userId, 1);
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        LIKED,
+        UNLIKED,
+        COMMENTED,
+        COMMENT_DELETED;
+
+        public boolean isEngagement() {
+            return this == LIKED || this == UNLIKED || this == COMMENTED || this == COMMENT_DELETED;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.blogpost.app.likes;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints in the style of Roaring bitmaps.
+ *
+ * Values are split by their high 16 bits into chunks; each chunk stores its low
+ * 16 bits either as a sorted char array (sparse, up to 4096 values, 2 bytes per
+ * value) or as a 65536-bit bitmap (dense, a fixed 8 KB), switching representation
+ * as the chunk crosses the threshold. Chunk keys are kept sorted for binary search.
+ *
+ * Not thread safe.
+ */
+class IntBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] keys = new char[0];
+    private Object[] containers = new Object[0];
+    private int cardinality;
+
+    boolean add(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, keys.length, high);
+        if (index < 0) {
+            insertContainer(-index - 1, high, new char[] { low });
+            cardinality++;
+            return true;
+        }
+
+        Object container = containers[index];
+        boolean added;
+        if (container instanceof char[] array) {
+            int position = Arrays.binarySearch(array, low);
+            if (position >= 0) {
+                return false;
+            }
+            containers[index] = array.length < ARRAY_MAX
+                    ? insertChar(array, -position - 1, low)
+                    : toBitmap(array, low);
+            added = true;
+        } else {
+            long[] bitmap = (long[]) container;
+            long mask = 1L << low;
+            added = (bitmap[low >>> 6] & mask) == 0;
+            bitmap[low >>> 6] |= mask;
+        }
+        if (added) {
+            cardinality++;
+        }
+        return added;
+    }
+
+    boolean remove(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, keys.length, high);
+        if (index < 0) {
+            return false;
+        }
+
+        Object container = containers[index];
+        if (container instanceof char[] array) {
+            int position = Arrays.binarySearch(array, low);
+            if (position < 0) {
+                return false;
+            }
+            if (array.length == 1) {
+                removeContainer(index);
+            } else {
+                char[] smaller = new char[array.length - 1];
+                System.arraycopy(array, 0, smaller, 0, position);
+                System.arraycopy(array, position + 1, smaller, position, array.length - position - 1);
+                containers[index] = smaller;
+            }
+        } else {
+            long[] bitmap = (long[]) container;
+            long mask = 1L << low;
+            if ((bitmap[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            bitmap[low >>> 6] &= ~mask;
+            if (bitCount(bitmap) <= ARRAY_MAX) {
+                containers[index] = toArray(bitmap);
+            }
+        }
+        cardinality--;
+        return true;
+    }
+
+    boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, keys.length, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[index];
+        if (container instanceof char[] array) {
+            return Arrays.binarySearch(array, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    // Approximate heap footprint: container payloads plus per-array headers
+    long sizeInBytes() {
+        long bytes = 16 + 16 + keys.length * 2L + 16 + containers.length * 4L;
+        for (Object container : containers) {
+            bytes += 16 + (container instanceof char[] array ? array.length * 2L : BITMAP_WORDS * 8L);
+        }
+        return bytes;
+    }
+
+    private void insertContainer(int index, char key, Object container) {
+        char[] newKeys = new char[keys.length + 1];
+        Object[] newContainers = new Object[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        newKeys[index] = key;
+        newContainers[index] = container;
+        System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+        System.arraycopy(containers, index, newContainers, index + 1, containers.length - index);
+        keys = newKeys;
+        containers = newContainers;
+    }
+
+    private void removeContainer(int index) {
+        char[] newKeys = new char[keys.length - 1];
+        Object[] newContainers = new Object[containers.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+        keys = newKeys;
+        containers = newContainers;
+    }
+
+    private static char[] insertChar(char[] array, int position, char value) {
+        char[] larger = new char[array.length + 1];
+        System.arraycopy(array, 0, larger, 0, position);
+        larger[position] = value;
+        System.arraycopy(array, position, larger, position + 1, array.length - position);
+        return larger;
+    }
+
+    private static long[] toBitmap(char[] array, char extra) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (char value : array) {
+            bitmap[value >>> 6] |= 1L << value;
+        }
+        bitmap[extra >>> 6] |= 1L << extra;
+        return bitmap;
+    }
+
+    private static char[] toArray(long[] bitmap) {
+        char[] array = new char[bitCount(bitmap)];
+        int position = 0;
+        for (int word = 0; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                array[position++] = (char) (word * 64 + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return array;
+    }
+
+    private static int bitCount(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
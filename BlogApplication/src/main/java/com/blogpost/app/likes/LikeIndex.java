@@ -0,0 +1,236 @@
+package com.blogpost.app.likes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blogpost.app.event.PostChangedEvent;
+
+/**
+ * In-memory copy of the likes table: one {@link IntBitmap} of user ids per post.
+ * Answers "did this user like these posts" and like counts without SQL once
+ * loaded (likes.index.enabled=true); until then callers fall back to queries.
+ *
+ * Loading splits the likes id range into chunks read concurrently. Committed
+ * LIKED/UNLIKED/DELETED events are applied as they arrive; events that arrive
+ * while loading are queued and replayed afterwards, so the chunk reads and the
+ * live changes can't leave a stale entry behind.
+ */
+@Component
+public class LikeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeIndex.class);
+    private static final long MAX_USER_ID = 0xFFFF_FFFFL;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${likes.index.enabled:true}")
+    private volatile boolean enabled;
+
+    @Value("${likes.index.load-threads:4}")
+    private int loadThreads;
+
+    @Value("${likes.index.load-chunk-size:100000}")
+    private int loadChunkSize;
+
+    private final Map<Long, IntBitmap> bitmaps = new ConcurrentHashMap<>();
+    private final List<PostChangedEvent> pendingEvents = new ArrayList<>();
+    private boolean loading = true;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready && enabled;
+    }
+
+    public boolean isLiked(Long postId, Long userId) {
+        IntBitmap bitmap = bitmaps.get(postId);
+        if (bitmap == null || userId > MAX_USER_ID) {
+            return false;
+        }
+        synchronized (bitmap) {
+            return bitmap.contains((int) userId.longValue());
+        }
+    }
+
+    public Set<Long> likedPostIds(Long userId, Collection<Long> postIds) {
+        Set<Long> liked = new HashSet<>();
+        for (Long postId : postIds) {
+            if (isLiked(postId, userId)) {
+                liked.add(postId);
+            }
+        }
+        return liked;
+    }
+
+    public long likeCount(Long postId) {
+        IntBitmap bitmap = bitmaps.get(postId);
+        if (bitmap == null) {
+            return 0;
+        }
+        synchronized (bitmap) {
+            return bitmap.cardinality();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long likes = 0;
+        long bytes = 0;
+        for (IntBitmap bitmap : bitmaps.values()) {
+            synchronized (bitmap) {
+                likes += bitmap.cardinality();
+                bytes += bitmap.sizeInBytes();
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("ready", ready);
+        result.put("posts", bitmaps.size());
+        result.put("likes", likes);
+        result.put("sizeInBytes", bytes);
+        result.put("bytesPerLike", likes > 0 ? (double) bytes / likes : 0.0);
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            Long maxUserId = jdbcTemplate.queryForObject("SELECT MAX(user_id) FROM likes", Long.class);
+            if (maxUserId != null && maxUserId > MAX_USER_ID) {
+                throw new IllegalStateException("user ids exceed 32 bits");
+            }
+            loadChunks(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM likes", Long.class));
+        } catch (Exception e) {
+            logger.warn("Like index disabled, falling back to queries: {}", e.getMessage());
+            enabled = false;
+            bitmaps.clear();
+            synchronized (pendingEvents) {
+                pendingEvents.clear();
+            }
+            return;
+        }
+
+        synchronized (pendingEvents) {
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            loading = false;
+        }
+        ready = true;
+        logger.info("Like index loaded: {} in {} ms", stats(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Drops a deleted user's likes from every post. Inside a transaction this
+     * happens after commit, so a delete that rolls back leaves the likes intact.
+     */
+    public void removeUser(Long userId) {
+        if (!enabled || userId > MAX_USER_ID) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUserNow(userId);
+                }
+            });
+        } else {
+            removeUserNow(userId);
+        }
+    }
+
+    private void removeUserNow(Long userId) {
+        for (IntBitmap bitmap : bitmaps.values()) {
+            synchronized (bitmap) {
+                bitmap.remove((int) userId.longValue());
+            }
+        }
+    }
+
+    private void loadChunks(long maxId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, loadThreads));
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long from = 0; from < maxId; from += loadChunkSize) {
+                long lower = from;
+                long upper = from + loadChunkSize;
+                chunks.add(executor.submit(() -> jdbcTemplate.query(
+                        "SELECT post_id, user_id FROM likes WHERE id > ? AND id <= ?",
+                        rs -> { add(rs.getLong(1), rs.getLong(2)); }, lower, upper)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pendingEvents) {
+            if (loading) {
+                pendingEvents.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(PostChangedEvent event) {
+        switch (event.type()) {
+            case LIKED -> add(event.postId(), event.userId());
+            case UNLIKED -> {
+                IntBitmap bitmap = bitmaps.get(event.postId());
+                if (bitmap != null) {
+                    synchronized (bitmap) {
+                        bitmap.remove((int) event.userId().longValue());
+                    }
+                }
+            }
+            case DELETED -> bitmaps.remove(event.postId());
+            default -> { }
+        }
+    }
+
+    private void add(long postId, long userId) {
+        if (userId > MAX_USER_ID) {
+            // Can't be represented; stop answering rather than answer wrongly
+            ready = false;
+            enabled = false;
+            return;
+        }
+        IntBitmap bitmap = bitmaps.computeIfAbsent(postId, id -> new IntBitmap());
+        synchronized (bitmap) {
+            bitmap.add((int) userId);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A comment with its author, as read by the thread queries. Rows arrive in
+ * depth-first order, so every parent precedes its replies.
+ */
+public interface CommentNode {
+    Long getId();
+    String getContent();
+    LocalDateTime getCreatedAt();
+    Long getParentId();
+    int getDepth();
+    // Replies in the whole thread; only meaningful on top-level rows
+    long getThreadReplies();
+    Long getUserId();
+    String getUserName();
+    String getFirstName();
+    String getLastName();
+    String getAvatarUrl();
+}
@@ -1,8 +1,11 @@
 package com.blogpost.app.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,9 +15,64 @@ import com.blogpost.app.entity.Comment;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     
-    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt DESC")
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId ORDER BY c.createdAt DESC, c.id DESC")
     List<Comment> findByPostIdOrderByCreatedAtDesc(@Param("postId") Long postId);
+
+    // Keyset page, newest first; authors come back in the same statement
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByPostIdAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id, Limit limit);
     
+    String NODE_COLUMNS =
+            "c.id AS id, c.content AS content, c.created_at AS \"createdAt\", c.parent_id AS \"parentId\", " +
+            "c.depth AS depth, u.id AS \"userId\", u.user_name AS \"userName\", u.first_name AS \"firstName\", " +
+            "u.last_name AS \"lastName\", u.avatar_url AS \"avatarUrl\" ";
+
+    // Sorting by path followed by the padded id lists a thread depth-first
+    String THREAD_ORDER = "(c.path || LPAD(CAST(c.id AS TEXT), 19, '0')) COLLATE \"C\"";
+
+    /**
+     * A page of top-level comments (newest first) with the first :replies replies
+     * of each thread in depth-first order, in one statement.
+     */
+    @Query(value = "WITH roots AS (" +
+                   "  SELECT c.id, c.created_at FROM comments c " +
+                   "  WHERE c.post_id = :postId AND c.parent_id IS NULL AND (c.created_at, c.id) < (:createdAt, :id) " +
+                   "  ORDER BY c.created_at DESC, c.id DESC LIMIT :limit) " +
+                   "SELECT " + NODE_COLUMNS + ", c.thread_size - 1 AS \"threadReplies\" FROM (" +
+                   "  SELECT c.*, COALESCE(c.root_id, c.id) AS thread_id, " +
+                   "    ROW_NUMBER() OVER (PARTITION BY COALESCE(c.root_id, c.id) ORDER BY " + THREAD_ORDER + ") AS rn, " +
+                   "    COUNT(*) OVER (PARTITION BY COALESCE(c.root_id, c.id)) AS thread_size " +
+                   "  FROM comments c WHERE c.id IN (SELECT id FROM roots) OR c.root_id IN (SELECT id FROM roots)) c " +
+                   "JOIN roots r ON r.id = c.thread_id JOIN users u ON u.id = c.user_id " +
+                   "WHERE c.rn <= :replies + 1 " +
+                   "ORDER BY r.created_at DESC, r.id DESC, " + THREAD_ORDER,
+           nativeQuery = true)
+    List<CommentNode> findThreadsAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id, @Param("limit") int limit, @Param("replies") int replies);
+
+    /** A comment and all of its descendants: one range scan of idx_comment_path. */
+    @Query(value = "SELECT " + NODE_COLUMNS + ", 0 AS \"threadReplies\" " +
+                   "FROM comments c JOIN users u ON u.id = c.user_id " +
+                   "WHERE c.id = :id OR (c.path COLLATE \"C\" >= :fromPath AND c.path COLLATE \"C\" < :toPath) " +
+                   "ORDER BY " + THREAD_ORDER,
+           nativeQuery = true)
+    List<CommentNode> findSubtree(@Param("id") Long id, @Param("fromPath") String fromPath,
+                                  @Param("toPath") String toPath);
+
+    @Modifying
+    @Query(value = "DELETE FROM comments " +
+                   "WHERE id = :id OR (path COLLATE \"C\" >= :fromPath AND path COLLATE \"C\" < :toPath)",
+           nativeQuery = true)
+    int deleteSubtree(@Param("id") Long id, @Param("fromPath") String fromPath, @Param("toPath") String toPath);
+
+    // Single statement, so replies and their parents go together without FK ordering issues
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE post_id = :postId", nativeQuery = true)
+    int deleteAllByPostId(@Param("postId") Long postId);
+
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId")
     Long countByPostId(@Param("postId") Long postId);
     
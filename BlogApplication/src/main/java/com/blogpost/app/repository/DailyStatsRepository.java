@@ -0,0 +1,13 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.blogpost.app.entity.DailyStats;
+
+public interface DailyStatsRepository extends JpaRepository<DailyStats, LocalDate> {
+
+    List<DailyStats> findByStatDateGreaterThanEqualOrderByStatDateAsc(LocalDate from);
+}
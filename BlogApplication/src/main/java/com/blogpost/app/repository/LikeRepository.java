@@ -1,5 +1,7 @@
 package com.blogpost.app.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +31,18 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
 
     boolean existsByPostIdAndUserId(Long postId, Long userId);
 
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // Keyset page of likers, newest like first (served by idx_like_post_created)
+    @Query(value = "SELECT l.id AS id, l.created_at AS \"createdAt\", u.user_name AS \"userName\" " +
+                   "FROM likes l JOIN users u ON u.id = l.user_id " +
+                   "WHERE l.post_id = :postId AND (l.created_at, l.id) < (:createdAt, :id) " +
+                   "ORDER BY l.created_at DESC, l.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<LikeUser> findLikeUsersAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, @Param("limit") int limit);
+
     @Query("SELECT COUNT(l) FROM Like l WHERE l.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDateTime;
+
+public interface LikeUser {
+    Long getId();
+    LocalDateTime getCreatedAt();
+    String getUserName();
+}
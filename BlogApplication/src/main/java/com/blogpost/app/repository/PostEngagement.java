@@ -0,0 +1,10 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDateTime;
+
+public interface PostEngagement {
+    Long getId();
+    LocalDateTime getCreatedAt();
+    int getLikesCount();
+    int getCommentsCount();
+}
@@ -1,15 +1,20 @@
 package com.blogpost.app.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.blogpost.app.entity.Post;
 
@@ -18,21 +23,138 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     List<Post> getByUserId(Long userId);
 
-    @EntityGraph(attributePaths = {"user", "likes", "comments"})
-    Page<Post> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    @EntityGraph(attributePaths = {"user"})
+    Optional<Post> findById(Long id);
 
-    @EntityGraph(attributePaths = {"user", "likes", "comments"})
-    Page<Post> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+    // Listing read path: one native round trip per page returning PostSummary rows
+    // (post columns, author columns and tags aggregated as JSON) instead of entities.
 
-    @EntityGraph(attributePaths = {"user", "likes", "comments"})
-    @Query("SELECT p FROM Post p WHERE LOWER(p.postTitle) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(p.postContent) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY p.createdAt DESC")
-    Page<Post> searchPosts(@Param("query") String query, Pageable pageable);
+    String SUMMARY_SELECT = "SELECT p.id AS \"id\", p.post_title AS \"postTitle\", p.post_content AS \"postContent\", " +
+            "p.image_url AS \"image\", p.likes_count AS \"likesCount\", p.comments_count AS \"commentsCount\", " +
+            "p.created_at AS \"createdAt\", p.updated_at AS \"updatedAt\", " +
+            "u.id AS \"userId\", u.user_name AS \"userName\", u.first_name AS \"firstName\", " +
+            "u.last_name AS \"lastName\", u.avatar_url AS \"avatarUrl\", " +
+            "(SELECT CAST(json_agg(json_build_object('id', t.id, 'name', t.name, 'slug', t.slug) ORDER BY t.name) AS TEXT) " +
+            "   FROM post_tags pt JOIN tags t ON t.id = pt.tag_id WHERE pt.post_id = p.id) AS \"tagsJson\" " +
+            "FROM posts p JOIN users u ON u.id = p.user_id ";
 
-    @EntityGraph(attributePaths = {"user", "likes", "comments"})
-    Optional<Post> findById(Long id);
+    String TAG_FILTER = "EXISTS (SELECT 1 FROM post_tags ptf JOIN tags tf ON tf.id = ptf.tag_id " +
+            "WHERE ptf.post_id = p.id AND tf.slug = :tagSlug) ";
+
+    // Full-text search over the weighted search_vector column (see schema.sql), served by its GIN index
+    String SEARCH_QUERY = "CROSS JOIN websearch_to_tsquery('english', :query) q ";
+    String SEARCH_MATCH = "p.search_vector @@ q ";
+
+    // Keyset (seek) pages ordered by (created_at, id) DESC: no OFFSET and no COUNT(*).
+    // The row comparison lets the planner range-scan idx_post_created_at backwards.
+    String SEEK_AFTER = "(p.created_at, p.id) < (:createdAt, :id) ";
+    String SEEK_ORDER = "ORDER BY p.created_at DESC, p.id DESC ";
+
+    @Query(value = SUMMARY_SELECT + SEEK_ORDER,
+           countQuery = "SELECT COUNT(*) FROM posts",
+           nativeQuery = true)
+    Page<PostSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.user_id = :userId " + SEEK_ORDER,
+           countQuery = "SELECT COUNT(*) FROM posts WHERE user_id = :userId",
+           nativeQuery = true)
+    Page<PostSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE " + TAG_FILTER + SEEK_ORDER,
+           countQuery = "SELECT COUNT(*) FROM posts p WHERE " + TAG_FILTER,
+           nativeQuery = true)
+    Page<PostSummary> findSummariesByTagSlug(@Param("tagSlug") String tagSlug, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + SEARCH_QUERY + "WHERE " + SEARCH_MATCH +
+                   "ORDER BY ts_rank(p.search_vector, q) DESC, p.created_at DESC, p.id DESC",
+           countQuery = "SELECT COUNT(*) FROM posts p " + SEARCH_QUERY + "WHERE " + SEARCH_MATCH,
+           nativeQuery = true)
+    Page<PostSummary> searchSummaries(@Param("query") String query, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE " + SEEK_AFTER + SEEK_ORDER + "LIMIT :limit",
+           nativeQuery = true)
+    List<PostSummary> findSummariesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                         @Param("limit") int limit);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.user_id = :userId AND " + SEEK_AFTER + SEEK_ORDER + "LIMIT :limit",
+           nativeQuery = true)
+    List<PostSummary> findSummariesByUserIdAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = SUMMARY_SELECT + "WHERE " + TAG_FILTER + "AND " + SEEK_AFTER + SEEK_ORDER + "LIMIT :limit",
+           nativeQuery = true)
+    List<PostSummary> findSummariesByTagSlugAfter(@Param("tagSlug") String tagSlug, @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id, @Param("limit") int limit);
+
+    // Search keyset pages follow the rank, like page mode, so rank and id form the position
+    @Query(value = "SELECT p.id AS \"id\", ts_rank(p.search_vector, q) AS \"rank\" FROM posts p " + SEARCH_QUERY +
+                   "WHERE " + SEARCH_MATCH + "AND (ts_rank(p.search_vector, q), p.id) < (:rank, :id) " +
+                   "ORDER BY ts_rank(p.search_vector, q) DESC, p.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<RankedPost> searchRankedAfter(@Param("query") String query, @Param("rank") float rank, @Param("id") long id,
+                                       @Param("limit") int limit);
+
+    @Query("SELECT t.slug FROM Post p JOIN p.tags t WHERE p.id = :postId")
+    List<String> findTagSlugsByPostId(@Param("postId") Long postId);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.id IN (:ids)", nativeQuery = true)
+    List<PostSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.postTitle AS postTitle, p.postContent AS postContent " +
+           "FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<PostText> findTextsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT p.id AS id, p.postTitle AS postTitle, p.postContent AS postContent FROM Post p WHERE p.id = :id")
+    Optional<PostText> findTextById(@Param("id") Long id);
+
+    // Seed for the trending ranking when no snapshot exists yet
+    @Query(value = "SELECT p.id AS id, p.created_at AS createdAt, p.likes_count AS likesCount, " +
+                   "p.comments_count AS commentsCount FROM posts p WHERE p.created_at > :since " +
+                   "ORDER BY p.created_at DESC LIMIT :limit",
+           nativeQuery = true)
+    List<PostEngagement> findEngagementSince(@Param("since") LocalDateTime since, @Param("limit") int limit);
+
+    // Counter maintenance: single-statement increments so concurrent writers never lose updates
+
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = CASE WHEN p.likesCount + :delta < 0 THEN 0 " +
+           "ELSE p.likesCount + :delta END, p.lastActivityAt = CURRENT_TIMESTAMP WHERE p.id = :postId")
+    int adjustLikesCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentsCount = CASE WHEN p.commentsCount + :delta < 0 THEN 0 " +
+           "ELSE p.commentsCount + :delta END, p.lastActivityAt = CURRENT_TIMESTAMP WHERE p.id = :postId")
+    int adjustCommentsCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    // Primary-key lookup of validators, so conditional GETs can answer 304 without loading the post
+    @Query("SELECT p.id AS id, p.updatedAt AS updatedAt, p.lastActivityAt AS lastActivityAt, " +
+           "u.updatedAt AS authorUpdatedAt, p.likesCount AS likesCount, p.commentsCount AS commentsCount " +
+           "FROM Post p JOIN p.user u WHERE p.id = :postId")
+    Optional<PostVersion> findVersionById(@Param("postId") Long postId);
+
+    @Query("SELECT p.likesCount FROM Post p WHERE p.id = :postId")
+    Optional<Integer> findLikesCountById(@Param("postId") Long postId);
+
+    @Query("SELECT p.commentsCount FROM Post p WHERE p.id = :postId")
+    Optional<Integer> findCommentsCountById(@Param("postId") Long postId);
+
+    @Query(value = "SELECT MAX(b.id) FROM (SELECT id FROM posts WHERE id > :afterId ORDER BY id LIMIT :batchSize) b",
+           nativeQuery = true)
+    Long findBatchUpperId(@Param("afterId") long afterId, @Param("batchSize") int batchSize);
+
+    // Taken before recomputeCounters in the same transaction, so its counts see every write to these rows
+    @Query(value = "SELECT id FROM posts WHERE id > :afterId AND id <= :upperId ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockBatch(@Param("afterId") long afterId, @Param("upperId") long upperId);
 
-    @EntityGraph(attributePaths = {"user", "likes", "comments", "tags"})
-    @Query("SELECT DISTINCT p FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug ORDER BY p.createdAt DESC")
-    Page<Post> findByTagSlug(@Param("tagSlug") String tagSlug, Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE posts p SET likes_count = x.likes, comments_count = x.comments " +
+                   "FROM (SELECT p2.id, " +
+                   "  (SELECT COUNT(*) FROM likes l WHERE l.post_id = p2.id) AS likes, " +
+                   "  (SELECT COUNT(*) FROM comments c WHERE c.post_id = p2.id) AS comments " +
+                   "  FROM posts p2 WHERE p2.id > :afterId AND p2.id <= :upperId) x " +
+                   "WHERE p.id = x.id AND (p.likes_count <> x.likes OR p.comments_count <> x.comments)",
+           nativeQuery = true)
+    int recomputeCounters(@Param("afterId") long afterId, @Param("upperId") long upperId);
 }
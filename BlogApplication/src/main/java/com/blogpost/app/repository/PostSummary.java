@@ -0,0 +1,26 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model for post listings: exactly the columns of PostResponse plus
+ * author fields, with the post's tags pre-aggregated as a JSON array.
+ */
+public interface PostSummary {
+    Long getId();
+    String getPostTitle();
+    String getPostContent();
+    String getImage();
+    int getLikesCount();
+    int getCommentsCount();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+
+    Long getUserId();
+    String getUserName();
+    String getFirstName();
+    String getLastName();
+    String getAvatarUrl();
+
+    String getTagsJson();
+}
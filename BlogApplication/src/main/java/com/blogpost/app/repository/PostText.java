@@ -0,0 +1,10 @@
+package com.blogpost.app.repository;
+
+/**
+ * Just the searchable text of a post, used to (re)build the in-memory search index.
+ */
+public interface PostText {
+    Long getId();
+    String getPostTitle();
+    String getPostContent();
+}
@@ -0,0 +1,32 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cheap validator for HTTP conditional requests on a post and its likes.
+ * Edits move updatedAt, like/comment changes move lastActivityAt and a counter,
+ * and author profile changes move authorUpdatedAt.
+ */
+public interface PostVersion {
+    Long getId();
+    LocalDateTime getUpdatedAt();
+    LocalDateTime getLastActivityAt();
+    LocalDateTime getAuthorUpdatedAt();
+    int getLikesCount();
+    int getCommentsCount();
+
+    default String etag(String scope) {
+        return scope + "-" + getId() + "-" + toMillis(getUpdatedAt()) + "-" + toMillis(getLastActivityAt())
+                + "-" + toMillis(getAuthorUpdatedAt()) + "-" + getLikesCount() + "-" + getCommentsCount();
+    }
+
+    default long lastModified() {
+        return Math.max(toMillis(getUpdatedAt()),
+                Math.max(toMillis(getLastActivityAt()), toMillis(getAuthorUpdatedAt())));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+}
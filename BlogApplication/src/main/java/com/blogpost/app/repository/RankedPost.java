@@ -0,0 +1,7 @@
+package com.blogpost.app.repository;
+
+/** A full-text search hit: the post id and its ts_rank score. */
+public interface RankedPost {
+    Long getId();
+    Float getRank();
+}
@@ -0,0 +1,8 @@
+package com.blogpost.app.repository;
+
+public interface TagCount {
+    Long getId();
+    String getName();
+    String getSlug();
+    long getPostsCount();
+}
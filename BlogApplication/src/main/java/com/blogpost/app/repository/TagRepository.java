@@ -1,10 +1,12 @@
 package com.blogpost.app.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.blogpost.app.entity.Tag;
@@ -18,8 +20,17 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     List<Tag> findByNameIn(List<String> names);
 
-    @Query("SELECT t FROM Tag t LEFT JOIN FETCH t.posts ORDER BY t.name")
-    List<Tag> findAllWithPostCount();
+    List<Tag> findBySlugIn(Collection<String> slugs);
+
+    // One grouped scan of the join table instead of materializing every tag's posts
+    @Query(value = "SELECT t.id AS id, t.name AS name, t.slug AS slug, COUNT(pt.post_id) AS \"postsCount\" " +
+                   "FROM tags t LEFT JOIN post_tags pt ON pt.tag_id = t.id " +
+                   "GROUP BY t.id, t.name, t.slug ORDER BY t.name",
+           nativeQuery = true)
+    List<TagCount> findAllWithPostCount();
+
+    @Query(value = "SELECT COUNT(*) FROM post_tags WHERE tag_id = :tagId", nativeQuery = true)
+    long countPostsByTagId(@Param("tagId") Long tagId);
 
     boolean existsBySlug(String slug);
 
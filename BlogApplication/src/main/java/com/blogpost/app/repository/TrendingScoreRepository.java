@@ -0,0 +1,18 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.blogpost.app.entity.TrendingScore;
+
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Long> {
+
+    // Rows not refreshed by the latest snapshot belong to posts that left the ranking
+    @Modifying
+    @Query("DELETE FROM TrendingScore t WHERE t.scoredAt < :scoredAt")
+    int deleteScoredBefore(@Param("scoredAt") LocalDateTime scoredAt);
+}
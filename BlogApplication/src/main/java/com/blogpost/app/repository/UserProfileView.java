@@ -0,0 +1,16 @@
+package com.blogpost.app.repository;
+
+import java.time.LocalDateTime;
+
+public interface UserProfileView {
+    Long getId();
+    String getUserName();
+    String getFirstName();
+    String getLastName();
+    String getAvatarUrl();
+    String getRole();
+    LocalDateTime getCreatedAt();
+    int getPostsCount();
+    int getCommentsCount();
+    int getLikesCount();
+}
@@ -0,0 +1,106 @@
+package com.blogpost.app.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blogpost.app.entity.UserStats;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // Single-statement upsert, safe under concurrent writers for the same user
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, posts_count, comments_count, likes_given_count, last_active_at) " +
+                   "VALUES (:userId, GREATEST(:posts, 0), GREATEST(:comments, 0), GREATEST(:likes, 0), CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "posts_count = GREATEST(user_stats.posts_count + :posts, 0), " +
+                   "comments_count = GREATEST(user_stats.comments_count + :comments, 0), " +
+                   "likes_given_count = GREATEST(user_stats.likes_given_count + :likes, 0), " +
+                   "last_active_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    void adjust(@Param("userId") Long userId, @Param("posts") int posts, @Param("comments") int comments,
+                @Param("likes") int likes);
+
+    // Every user gets a row at sign-up, so the admin listing can inner join and sort on its columns
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, posts_count, comments_count, likes_given_count, last_active_at) " +
+                   "VALUES (:userId, 0, 0, 0, CURRENT_TIMESTAMP) ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true)
+    void create(@Param("userId") Long userId);
+
+    // Run before a post's comments and likes are removed: every commenter and liker loses them
+    @Modifying
+    @Query(value = "UPDATE user_stats s SET comments_count = GREATEST(s.comments_count - x.n, 0) " +
+                   "FROM (SELECT user_id, COUNT(*) AS n FROM comments WHERE post_id = :postId GROUP BY user_id) x " +
+                   "WHERE s.user_id = x.user_id",
+           nativeQuery = true)
+    int subtractCommentsOfPost(@Param("postId") Long postId);
+
+    @Modifying
+    @Query(value = "UPDATE user_stats s SET likes_given_count = GREATEST(s.likes_given_count - x.n, 0) " +
+                   "FROM (SELECT user_id, COUNT(*) AS n FROM likes WHERE post_id = :postId GROUP BY user_id) x " +
+                   "WHERE s.user_id = x.user_id",
+           nativeQuery = true)
+    int subtractLikesOfPost(@Param("postId") Long postId);
+
+    // Same for a comment subtree (see CommentRepository.deleteSubtree)
+    @Modifying
+    @Query(value = "UPDATE user_stats s SET comments_count = GREATEST(s.comments_count - x.n, 0) " +
+                   "FROM (SELECT user_id, COUNT(*) AS n FROM comments " +
+                   "  WHERE id = :id OR (path COLLATE \"C\" >= :fromPath AND path COLLATE \"C\" < :toPath) " +
+                   "  GROUP BY user_id) x " +
+                   "WHERE s.user_id = x.user_id",
+           nativeQuery = true)
+    int subtractCommentSubtree(@Param("id") Long id, @Param("fromPath") String fromPath,
+                               @Param("toPath") String toPath);
+
+    @Query(value = "SELECT MAX(b.id) FROM (SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :batchSize) b",
+           nativeQuery = true)
+    Long findBatchUpperId(@Param("afterId") long afterId, @Param("batchSize") int batchSize);
+
+    // Creates the missing rows of a batch, so lockBatch covers every user in it
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, posts_count, comments_count, likes_given_count, last_active_at) " +
+                   "SELECT u.id, 0, 0, 0, u.created_at FROM users u WHERE u.id > :afterId AND u.id <= :upperId " +
+                   "ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true)
+    int insertMissing(@Param("afterId") long afterId, @Param("upperId") long upperId);
+
+    // Taken before recompute in the same transaction, so its counts see every write to these rows
+    @Query(value = "SELECT user_id FROM user_stats WHERE user_id > :afterId AND user_id <= :upperId " +
+                   "ORDER BY user_id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockBatch(@Param("afterId") long afterId, @Param("upperId") long upperId);
+
+    // Recounts a range of users from the source tables; only rows that differ are written
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, posts_count, comments_count, likes_given_count) " +
+                   "SELECT u.id, " +
+                   "  (SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id), " +
+                   "  (SELECT COUNT(*) FROM comments c WHERE c.user_id = u.id), " +
+                   "  (SELECT COUNT(*) FROM likes l WHERE l.user_id = u.id) " +
+                   "FROM users u WHERE u.id > :afterId AND u.id <= :upperId " +
+                   "ON CONFLICT (user_id) DO UPDATE SET posts_count = EXCLUDED.posts_count, " +
+                   "  comments_count = EXCLUDED.comments_count, likes_given_count = EXCLUDED.likes_given_count " +
+                   "WHERE (user_stats.posts_count, user_stats.comments_count, user_stats.likes_given_count) " +
+                   "  IS DISTINCT FROM (EXCLUDED.posts_count, EXCLUDED.comments_count, EXCLUDED.likes_given_count)",
+           nativeQuery = true)
+    int recompute(@Param("afterId") long afterId, @Param("upperId") long upperId);
+
+    @Query(value = "SELECT u.id AS id, u.user_name AS \"userName\", u.first_name AS \"firstName\", " +
+                   "u.last_name AS \"lastName\", u.avatar_url AS \"avatarUrl\", u.role AS role, " +
+                   "u.created_at AS \"createdAt\", COALESCE(s.posts_count, 0) AS \"postsCount\", " +
+                   "COALESCE(s.comments_count, 0) AS \"commentsCount\", " +
+                   "COALESCE(s.likes_given_count, 0) AS \"likesCount\" " +
+                   "FROM users u LEFT JOIN user_stats s ON s.user_id = u.id WHERE u.id = :userId",
+           nativeQuery = true)
+    Optional<UserProfileView> findProfileById(@Param("userId") Long userId);
+}
@@ -0,0 +1,342 @@
+package com.blogpost.app.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over post titles and content with BM25 ranking.
+ *
+ * Posts are assigned dense int doc ids in insertion order so postings can be
+ * delta encoded; an update is a delete followed by a fresh insert. Deleted docs
+ * are masked until enough accumulate, then all postings are compacted and doc
+ * ids renumbered; each doc keeps its postings lists so a delete can take it out
+ * of their document frequencies at once. Queries require every token to match
+ * (like websearch_to_tsquery) and treat the last token as a prefix unless the
+ * query ends with whitespace. A query only visits the postings of its tokens,
+ * scoring the docs still matching in a map, so its cost does not grow with the
+ * size of the index.
+ *
+ * Reads run concurrently under a read lock; writes are serialized.
+ */
+public class InvertedIndex {
+
+    public record SearchHits(List<Long> postIds, long totalHits) {
+        public static SearchHits empty() {
+            return new SearchHits(List.of(), 0);
+        }
+    }
+
+    public record ScoredPost(long postId, float score) {
+    }
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_BOOST = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1024;
+    private static final Comparator<ScoredPost> BY_SCORE_DESC = Comparator
+            .comparingDouble(ScoredPost::score).reversed()
+            .thenComparing(Comparator.comparingLong(ScoredPost::postId).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingsList> terms = new TreeMap<>();
+    private final Map<Long, Integer> docByPostId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] postIdByDoc = new long[1024];
+    private int[] docLength = new int[1024];
+    private PostingsList[][] postingsByDoc = new PostingsList[1024][];
+    private int nextDoc;
+    private int liveDocs;
+    private int deletedDocs;
+    private long totalLength;
+
+    public void put(long postId, String title, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTokens(frequencies, title, TITLE_BOOST) + addTokens(frequencies, content, 1);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            compactIfNeeded();
+
+            int doc = nextDoc++;
+            ensureDocCapacity(doc + 1);
+            postIdByDoc[doc] = postId;
+            docLength[doc] = length;
+            docByPostId.put(postId, doc);
+            liveDocs++;
+            totalLength += length;
+
+            PostingsList[] docPostings = new PostingsList[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                PostingsList postings = terms.computeIfAbsent(entry.getKey(), t -> new PostingsList());
+                postings.add(doc, entry.getValue());
+                docPostings[i++] = postings;
+            }
+            postingsByDoc[doc] = docPostings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        List<ScoredPost> hits = rank(query);
+        List<Long> page = new ArrayList<>();
+        for (int i = offset; i < hits.size() && page.size() < limit; i++) {
+            page.add(hits.get(i).postId());
+        }
+        return new SearchHits(page, hits.size());
+    }
+
+    /**
+     * Keyset variant of {@link #search}: up to limit hits ranked after the given
+     * (score, postId) position, in the same order. Scores shift as posts change,
+     * so a position only approximates where the previous page ended.
+     */
+    public List<ScoredPost> searchAfter(String query, float afterScore, long afterPostId, int limit) {
+        List<ScoredPost> page = new ArrayList<>();
+        for (ScoredPost hit : rank(query)) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (hit.score() < afterScore || (hit.score() == afterScore && hit.postId() < afterPostId)) {
+                page.add(hit);
+            }
+        }
+        return page;
+    }
+
+    // Every matching post, highest score first; newer posts (higher ids) win ties
+    private List<ScoredPost> rank(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+
+            float avgLength = (float) totalLength / liveDocs;
+            // AND semantics: each token narrows the docs that matched every earlier one
+            Map<Integer, float[]> matched = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = prefixLast && i == tokens.size() - 1;
+                Map<Integer, float[]> previous = matched;
+                Map<Integer, float[]> current = new HashMap<>();
+                for (PostingsList postings : postingsFor(tokens.get(i), prefix)) {
+                    float idf = idf(postings.liveDocFreq());
+                    postings.forEach((doc, freq) -> {
+                        if (deleted.get(doc)) {
+                            return;
+                        }
+                        float[] score = current.get(doc);
+                        if (score == null) {
+                            score = previous == null ? new float[1] : previous.get(doc);
+                            if (score == null) {
+                                return;
+                            }
+                            current.put(doc, score);
+                        }
+                        float norm = K1 * (1 - B + B * docLength[doc] / avgLength);
+                        score[0] += idf * freq * (K1 + 1) / (freq + norm);
+                    });
+                }
+                if (current.isEmpty()) {
+                    return List.of();
+                }
+                matched = current;
+            }
+
+            List<ScoredPost> hits = new ArrayList<>(matched.size());
+            matched.forEach((doc, score) -> hits.add(new ScoredPost(postIdByDoc[doc], score[0])));
+            hits.sort(BY_SCORE_DESC);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long postingsSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingsList postings : terms.values()) {
+                bytes += postings.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private int addTokens(Map<String, Integer> frequencies, String text, int weight) {
+        if (text == null) {
+            return 0;
+        }
+        int count = 0;
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                frequencies.merge(token, weight, Integer::sum);
+                count += weight;
+            }
+        }
+        return count;
+    }
+
+    private List<PostingsList> postingsFor(String token, boolean prefix) {
+        if (!prefix) {
+            PostingsList postings = terms.get(token);
+            return postings != null && postings.liveDocFreq() > 0 ? List.of(postings) : List.of();
+        }
+        List<PostingsList> expansions = new ArrayList<>();
+        for (PostingsList postings : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+            // Terms left only in deleted docs until the next compaction
+            if (postings.liveDocFreq() == 0) {
+                continue;
+            }
+            expansions.add(postings);
+            if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return expansions;
+    }
+
+    private float idf(int docFreq) {
+        return (float) Math.log(1 + (liveDocs - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    private void removeLocked(long postId) {
+        Integer doc = docByPostId.remove(postId);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        deletedDocs++;
+        liveDocs--;
+        totalLength -= docLength[doc];
+        for (PostingsList postings : postingsByDoc[doc]) {
+            postings.removeDoc();
+        }
+        postingsByDoc[doc] = null;
+    }
+
+    // Edits mask a doc just like deletes, so both paths check here
+    private void compactIfNeeded() {
+        if (deletedDocs >= MIN_DELETED_FOR_COMPACTION && deletedDocs > liveDocs / 4) {
+            compact();
+        }
+    }
+
+    // Drops deleted docs from every postings list and renumbers live docs densely
+    private void compact() {
+        int[] newDocIds = new int[nextDoc];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            newDocIds[doc] = deleted.get(doc) ? -1 : live++;
+        }
+
+        terms.replaceAll((term, postings) -> postings.remap(newDocIds));
+        terms.values().removeIf(postings -> postings == null);
+
+        long[] postIds = new long[Math.max(live, 1024)];
+        int[] lengths = new int[postIds.length];
+        PostingsList[][] docPostings = new PostingsList[postIds.length][];
+        for (int doc = 0; doc < nextDoc; doc++) {
+            int newDoc = newDocIds[doc];
+            if (newDoc >= 0) {
+                postIds[newDoc] = postIdByDoc[doc];
+                lengths[newDoc] = docLength[doc];
+                docPostings[newDoc] = new PostingsList[postingsByDoc[doc].length];
+                docByPostId.put(postIdByDoc[doc], newDoc);
+            }
+        }
+
+        // The remapped lists are new objects: point each doc at them again
+        int[] filled = new int[live];
+        for (PostingsList postings : terms.values()) {
+            postings.forEach((doc, freq) -> docPostings[doc][filled[doc]++] = postings);
+        }
+
+        postIdByDoc = postIds;
+        docLength = lengths;
+        postingsByDoc = docPostings;
+        nextDoc = live;
+        deletedDocs = 0;
+        deleted.clear();
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity > postIdByDoc.length) {
+            int newLength = Math.max(capacity, postIdByDoc.length * 2);
+            postIdByDoc = Arrays.copyOf(postIdByDoc, newLength);
+            docLength = Arrays.copyOf(docLength, newLength);
+            postingsByDoc = Arrays.copyOf(postingsByDoc, newLength);
+        }
+    }
+}
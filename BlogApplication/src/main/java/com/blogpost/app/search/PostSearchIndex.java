@@ -0,0 +1,111 @@
+package com.blogpost.app.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.blogpost.app.event.PostChangedEvent;
+import com.blogpost.app.repository.PostRepository;
+import com.blogpost.app.repository.PostText;
+
+/**
+ * Serves post search from an {@link InvertedIndex} when posts.search.engine=memory.
+ * The index is loaded from the database at startup and then kept current from
+ * committed post changes; until loading finishes, search falls back to Postgres.
+ * Changes committed while loading are queued and replayed afterwards, so a post
+ * read by an earlier batch is not left with its old text.
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${posts.search.engine:postgres}")
+    private String engine;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final List<PostChangedEvent> pendingEvents = new ArrayList<>();
+    private boolean loading = true;
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return "memory".equalsIgnoreCase(engine);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public InvertedIndex.SearchHits search(String query, int page, int size) {
+        return index.search(query, page * size, size);
+    }
+
+    public List<InvertedIndex.ScoredPost> searchAfter(String query, float afterScore, long afterPostId, int limit) {
+        return index.searchAfter(query, afterScore, afterPostId, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        List<PostText> batch;
+        do {
+            batch = postRepository.findTextsAfter(afterId, Limit.of(LOAD_BATCH_SIZE));
+            for (PostText post : batch) {
+                index.put(post.getId(), post.getPostTitle(), post.getPostContent());
+                afterId = post.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        synchronized (pendingEvents) {
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            loading = false;
+        }
+        ready = true;
+        logger.info("Search index loaded: {} posts, {} terms, {} KB of postings in {} ms",
+                index.size(), index.termCount(), index.postingsSizeInBytes() / 1024,
+                System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!isEnabled() || event.type().isEngagement()) {
+            return;
+        }
+        synchronized (pendingEvents) {
+            if (loading) {
+                pendingEvents.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(PostChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> postRepository.findTextById(event.postId())
+                    .ifPresentOrElse(
+                            post -> index.put(post.getId(), post.getPostTitle(), post.getPostContent()),
+                            () -> index.remove(event.postId()));
+            case DELETED -> index.remove(event.postId());
+        }
+    }
+}
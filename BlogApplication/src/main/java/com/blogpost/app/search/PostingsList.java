@@ -0,0 +1,106 @@
+package com.blogpost.app.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only postings for a single term. Entries are (docId, termFrequency)
+ * pairs stored as varint-encoded doc id deltas followed by a varint frequency,
+ * so typical lists cost one or two bytes per posting and no boxing.
+ */
+final class PostingsList {
+
+    interface Visitor {
+        void accept(int doc, int freq);
+    }
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int docFreq;
+    private int removedDocs;
+    private int lastDoc = -1;
+
+    // Doc ids must be appended in increasing order
+    void add(int doc, int freq) {
+        ensureCapacity(10);
+        writeVarint(doc - lastDoc);
+        writeVarint(freq);
+        lastDoc = doc;
+        docFreq++;
+    }
+
+    int docFreq() {
+        return docFreq;
+    }
+
+    // Docs still in the index: deleted docs stay in the data until compaction
+    int liveDocFreq() {
+        return docFreq - removedDocs;
+    }
+
+    void removeDoc() {
+        removedDocs++;
+    }
+
+    int sizeInBytes() {
+        return data.length;
+    }
+
+    void forEach(Visitor visitor) {
+        int pos = 0;
+        int doc = -1;
+        while (pos < length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            int freq = 0;
+            shift = 0;
+            do {
+                b = data[pos++];
+                freq |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            doc += delta;
+            visitor.accept(doc, freq);
+        }
+    }
+
+    /**
+     * Rewrites the list through a doc id mapping, dropping docs mapped to -1.
+     * Returns null when nothing survives.
+     */
+    PostingsList remap(int[] newDocIds) {
+        PostingsList remapped = new PostingsList();
+        forEach((doc, freq) -> {
+            int newDoc = newDocIds[doc];
+            if (newDoc >= 0) {
+                remapped.add(newDoc, freq);
+            }
+        });
+        if (remapped.docFreq == 0) {
+            return null;
+        }
+        remapped.data = Arrays.copyOf(remapped.data, remapped.length);
+        return remapped;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.blogpost.app.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Generic cell rate algorithm: allows {@code limit} requests per {@code period}
+ * per key, in bursts of up to {@code limit}. The whole state of a key is its
+ * theoretical arrival time (TAT), one long of epoch microseconds updated by
+ * compare-and-set, so hot keys never take a lock.
+ *
+ * Keys live in a size-capped map and expire one period after their last use,
+ * by which time their TAT is in the past and they would behave as new anyway.
+ * (A synced TAT can lie further ahead, but the sync itself keeps such keys in use.)
+ * All per-key bookkeeping, including what is still to be synced, lives in that
+ * map, so memory stays bounded by the key cap whether or not a store is used.
+ *
+ * In cluster mode {@link #syncWith} periodically pushes the requests this node
+ * admitted to a shared {@link RateLimitStateStore}, which advances a shared TAT
+ * per key, and pulls each local TAT up to the shared one. Keys stay in the sync
+ * while their TAT is ahead of the clock, so a node also learns of traffic it did
+ * not see itself. Requests are only ever decided locally; a node hears of the
+ * others' requests within two sync intervals, and anything admitted beyond the
+ * cluster-wide limit meanwhile is repaid as a later TAT.
+ */
+public class GcraRateLimiter {
+
+    public record Decision(boolean allowed, int limit, long remaining, long resetMicros, long retryAfterMicros) {
+    }
+
+    private static final class KeyState {
+        final AtomicLong tat = new AtomicLong();
+        final AtomicLong unsynced = new AtomicLong();
+        // TAT still ahead of the clock after the last sync
+        volatile boolean active;
+    }
+
+    private final int limit;
+    private final long periodMicros;
+    private final long emissionIntervalMicros;
+    private final LongSupplier microClock;
+    private final Cache<String, KeyState> states;
+
+    public GcraRateLimiter(int limit, Duration period, long maxKeys) {
+        this(limit, period, maxKeys, () -> System.currentTimeMillis() * 1000);
+    }
+
+    GcraRateLimiter(int limit, Duration period, long maxKeys, LongSupplier microClock) {
+        if (limit < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit needs a positive limit and period");
+        }
+        this.limit = limit;
+        this.periodMicros = period.toNanos() / 1000;
+        this.emissionIntervalMicros = Math.max(1, periodMicros / limit);
+        this.microClock = microClock;
+        this.states = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .ticker(() -> microClock.getAsLong() * 1000)
+                .build();
+    }
+
+    public Decision tryAcquire(String key) {
+        KeyState state = states.get(key, k -> new KeyState());
+        while (true) {
+            long now = microClock.getAsLong();
+            long stored = state.tat.get();
+            long tat = Math.max(stored, now);
+            long newTat = tat + emissionIntervalMicros;
+            long allowAt = newTat - periodMicros;
+
+            if (now < allowAt) {
+                return new Decision(false, limit, 0, tat - now, allowAt - now);
+            }
+            if (state.tat.compareAndSet(stored, newTat)) {
+                state.unsynced.incrementAndGet();
+                return new Decision(true, limit, (now + periodMicros - newTat) / emissionIntervalMicros,
+                        newTat - now, 0);
+            }
+        }
+    }
+
+    /**
+     * Reports the requests admitted since the last sync to the shared store and
+     * raises each key's TAT to the cluster-wide one it returns. If the store
+     * fails, the counts are kept for the next attempt.
+     */
+    public void syncWith(String policy, RateLimitStateStore store) {
+        Map<String, Long> counts = new HashMap<>();
+        states.asMap().forEach((key, state) -> {
+            long count = state.unsynced.getAndSet(0);
+            // Active keys without new requests are still sent, with a count of 0, to pull the shared TAT
+            if (count > 0 || state.active) {
+                counts.put(key, count);
+            }
+        });
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> sharedTats;
+        try {
+            sharedTats = store.advance(policy, counts, microClock.getAsLong(), emissionIntervalMicros);
+        } catch (RuntimeException e) {
+            counts.forEach((key, count) -> {
+                KeyState state = states.getIfPresent(key);
+                if (state != null) {
+                    state.unsynced.addAndGet(count);
+                }
+            });
+            throw e;
+        }
+
+        long now = microClock.getAsLong();
+        sharedTats.forEach((key, sharedTat) -> {
+            KeyState state = states.getIfPresent(key);
+            if (state != null) {
+                state.active = state.tat.accumulateAndGet(sharedTat, Math::max) > now;
+            }
+        });
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getPeriodSeconds() {
+        return periodMicros / 1_000_000L;
+    }
+
+    public long size() {
+        return states.estimatedSize();
+    }
+}
@@ -1,8 +1,9 @@
 package com.blogpost.app.security;
 
-import com.blogpost.app.entity.User;
+import com.blogpost.app.security.GcraRateLimiter.Decision;
+import com.blogpost.app.security.PrincipalCache.CachedPrincipal;
+import com.blogpost.app.security.RateLimiter.Policy;
 import com.blogpost.app.service.TokenService;
-import com.blogpost.app.service.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,7 +28,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserService userService;
+    private PrincipalCache principalCache;
 
     @Autowired
     private UserContext userContext;
@@ -35,6 +36,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
     private static final List<String> EXCLUDED_PATHS = Arrays.asList(
         "/api/auth/login",
         "/api/auth/register",
@@ -66,29 +70,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractTokenFromRequest(request);
 
+            // One signature check and one claims decode per request
+            VerifiedToken token = jwt != null ? jwtUtils.verify(jwt).orElse(null) : null;
+
             // Check if token is blacklisted
-            if (jwt != null && tokenService.isTokenBlacklisted(jwt)) {
+            if (token != null && tokenService.isTokenBlacklisted(jwt, token)) {
                 logger.debug("Token is blacklisted for path: {}", requestPath);
-                if (!isPublicEndpoint(requestPath, method)) {
-                    sendUnauthorizedResponse(response, "Token has been invalidated");
-                    return;
-                }
+                sendUnauthorizedResponse(response, "Token has been invalidated");
+                return;
             }
 
-            if (jwt != null && jwtUtils.validateToken(jwt) && !tokenService.isTokenBlacklisted(jwt)) {
-                String username = jwtUtils.extractUsername(jwt);
-                Long userId = jwtUtils.extractUserId(jwt);
-                String role = jwtUtils.extractRole(jwt);
+            if (token != null) {
+                String username = token.username();
+                Long userId = token.userId();
 
-                User user = userService.getUserById(userId);
+                CachedPrincipal user = userId != null ? principalCache.get(userId) : null;
 
-                if (user != null && username.equals(user.getUserName())) {
+                // Tokens issued before a revocation carry an older token version
+                if (user != null && username.equals(user.username())
+                        && (token.tokenVersion() == null || token.tokenVersion() == user.tokenVersion())) {
                     AuthenticatedUser authenticatedUser = new AuthenticatedUser();
                     authenticatedUser.setUserId(userId);
                     authenticatedUser.setUsername(username);
-                    authenticatedUser.setFirstName(user.getFirstName());
-                    authenticatedUser.setLastName(user.getLastName());
-                    authenticatedUser.setRole(role != null ? role : "USER");
+                    authenticatedUser.setFirstName(user.firstName());
+                    authenticatedUser.setLastName(user.lastName());
+                    authenticatedUser.setRole(user.role());
+
+                    if (isWrite(method)) {
+                        Decision writes = rateLimiter.check(Policy.WRITES, String.valueOf(userId), response);
+                        if (!writes.allowed()) {
+                            logger.warn("Write rate limit exceeded for user: {}", username);
+                            rateLimiter.reject(response, writes, "Too many changes. Please slow down.");
+                            return;
+                        }
+                    }
 
                     userContext.setCurrentUser(authenticatedUser);
                     logger.debug("User {} authenticated successfully for path: {}", username, requestPath);
@@ -141,6 +156,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
+    private boolean isWrite(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method);
+    }
+
     private boolean isPublicEndpoint(String requestPath, String method) {
         // Auth endpoints are public except logout and verify
         if (requestPath.startsWith("/api/auth/")) {
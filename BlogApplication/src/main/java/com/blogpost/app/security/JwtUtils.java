@@ -4,6 +4,8 @@ import com.blogpost.app.config.JwtConfig;
 import com.blogpost.app.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +16,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
@@ -24,9 +27,16 @@ public class JwtUtils {
     @Autowired
     private JwtConfig jwtConfig;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtConfig.getJwtSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Both are immutable and thread-safe, so they are built once and shared
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtConfig.getJwtSecret().getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateAccessToken(User user) {
@@ -35,6 +45,7 @@ public class JwtUtils {
         claims.put("firstName", user.getFirstName());
         claims.put("lastName", user.getLastName());
         claims.put("role", user.getRole() != null ? user.getRole().toString() : "USER");
+        claims.put("tokenVersion", user.getTokenVersion() != null ? user.getTokenVersion() : 0);
 
         return createToken(claims, user.getUserName(), jwtConfig.getAccessTokenExpiration());
     }
@@ -57,7 +68,7 @@ public class JwtUtils {
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .setIssuer(jwtConfig.getIssuer())
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -90,11 +101,7 @@ public class JwtUtils {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean isTokenExpired(String token) {
@@ -106,13 +113,13 @@ public class JwtUtils {
         }
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token's signature and expiry and decodes its claims, all in one
+     * parse. Returns empty for any token that fails verification.
+     */
+    public Optional<VerifiedToken> verify(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return Optional.of(VerifiedToken.from(parser.parseClaimsJws(token).getBody()));
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature - {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -124,7 +131,11 @@ public class JwtUtils {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty - {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
     public boolean validateToken(String token, String username) {
@@ -134,12 +145,12 @@ public class JwtUtils {
 
     public boolean validateRefreshToken(String token, User user) {
         try {
-            final String username = extractUsername(token);
-            final Integer tokenVersion = extractTokenVersion(token);
+            // Expired tokens fail verification, so no separate expiry check is needed
+            VerifiedToken verified = verify(token).orElse(null);
 
-            return username.equals(user.getUserName()) &&
-                   !isTokenExpired(token) &&
-                   (user.getTokenVersion() == null || tokenVersion.equals(user.getTokenVersion()));
+            return verified != null &&
+                   verified.username().equals(user.getUserName()) &&
+                   (user.getTokenVersion() == null || user.getTokenVersion().equals(verified.tokenVersion()));
         } catch (Exception e) {
             logger.error("Error validating refresh token: {}", e.getMessage());
             return false;
@@ -0,0 +1,27 @@
+package com.blogpost.app.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node revocation store: revocations live only in this JVM's
+ * {@link TokenBlacklist}. Used when security.revocation.store=local (the default).
+ */
+@Component
+@ConditionalOnProperty(name = "security.revocation.store", havingValue = "local", matchIfMissing = true)
+public class LocalTokenRevocationStore implements TokenRevocationStore {
+
+    @Autowired
+    private TokenBlacklist tokenBlacklist;
+
+    @Override
+    public void revoke(String token, long expiresAtMillis) {
+        tokenBlacklist.add(token, expiresAtMillis);
+    }
+
+    @Override
+    public boolean isRevoked(String token, long expiresAtMillis) {
+        return tokenBlacklist.contains(token, expiresAtMillis);
+    }
+}
@@ -0,0 +1,82 @@
+package com.blogpost.app.security;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the shared rate limit state in the rate_limit_state table. Each sync
+ * is one upsert per chunk of keys, passed as arrays; keys are sorted so nodes
+ * syncing overlapping keys lock rows in the same order and cannot deadlock.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.cluster.enabled", havingValue = "true")
+public class PostgresRateLimitStateStore implements RateLimitStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresRateLimitStateStore.class);
+    private static final int CHUNK_SIZE = 1000;
+
+    // EXCLUDED.tat_micros is now + count * interval, so the update yields max(tat, now) + count * interval
+    private static final String ADVANCE_SQL =
+            "INSERT INTO rate_limit_state (rate_key, tat_micros) " +
+            "SELECT u.rate_key, ? + u.request_count * ? FROM unnest(?, ?) AS u(rate_key, request_count) " +
+            "ON CONFLICT (rate_key) DO UPDATE SET " +
+            "tat_micros = GREATEST(rate_limit_state.tat_micros - ?, 0) + EXCLUDED.tat_micros " +
+            "RETURNING rate_key, tat_micros";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, Long> advance(String policy, Map<String, Long> counts, long nowMicros,
+            long emissionIntervalMicros) {
+        String prefix = policy + ":";
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(new TreeMap<>(counts).entrySet());
+        Map<String, Long> sharedTats = new HashMap<>();
+
+        for (int from = 0; from < sorted.size(); from += CHUNK_SIZE) {
+            List<Map.Entry<String, Long>> chunk = sorted.subList(from, Math.min(from + CHUNK_SIZE, sorted.size()));
+            String[] keys = new String[chunk.size()];
+            Long[] requestCounts = new Long[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                keys[i] = prefix + chunk.get(i).getKey();
+                requestCounts[i] = chunk.get(i).getValue();
+            }
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(ADVANCE_SQL);
+                Array keyArray = connection.createArrayOf("text", keys);
+                Array countArray = connection.createArrayOf("bigint", requestCounts);
+                statement.setLong(1, nowMicros);
+                statement.setLong(2, emissionIntervalMicros);
+                statement.setArray(3, keyArray);
+                statement.setArray(4, countArray);
+                statement.setLong(5, nowMicros);
+                return statement;
+            }, rs -> {
+                sharedTats.put(rs.getString(1).substring(prefix.length()), rs.getLong(2));
+            });
+        }
+        return sharedTats;
+    }
+
+    // A TAT in the past is the same as no row at all
+    @Scheduled(fixedDelayString = "${rate-limit.cluster.cleanup-interval-ms:60000}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM rate_limit_state WHERE tat_micros < ?",
+                System.currentTimeMillis() * 1000);
+        logger.debug("Deleted {} expired rate limit rows", deleted);
+    }
+}
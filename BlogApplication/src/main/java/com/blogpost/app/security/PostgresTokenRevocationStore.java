@@ -0,0 +1,128 @@
+package com.blogpost.app.security;
+
+import java.sql.DriverManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blogpost.app.entity.RevokedToken;
+import com.blogpost.app.repository.RevokedTokenRepository;
+import com.blogpost.app.security.RevocationChannel.Revocation;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cluster-wide revocation store (security.revocation.store=postgres). A
+ * revocation is written to revoked_tokens and announced with pg_notify in the
+ * caller's transaction, so other nodes hear of it only once it is committed.
+ * Every node mirrors the table into its local {@link TokenBlacklist}, which is
+ * all the request path ever reads: the mirror is loaded whenever the
+ * {@link RevocationChannel} (re)connects and then kept current by notifications.
+ * The channel listens on its own connection from DriverManager, outside the
+ * pool: LISTEN holds it for the node's lifetime.
+ * Expiries are stored as epoch milliseconds, the unit the tokens carry, so
+ * nodes in different time zones agree on them.
+ */
+@Component
+@ConditionalOnProperty(name = "security.revocation.store", havingValue = "postgres")
+public class PostgresTokenRevocationStore implements TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresTokenRevocationStore.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO revoked_tokens (token_digest, expires_at_millis) VALUES (?, ?) " +
+            "ON CONFLICT (token_digest) DO NOTHING";
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    @Autowired
+    private TokenBlacklist tokenBlacklist;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${security.revocation.listen-timeout-ms:5000}")
+    private int listenTimeoutMs;
+
+    @Value("${security.revocation.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    private RevocationChannel channel;
+
+    @Override
+    public void revoke(String token, long expiresAtMillis) {
+        Revocation revocation = new Revocation(TokenBlacklist.Digest.of(token), expiresAtMillis);
+        jdbcTemplate.update(INSERT_SQL, revocation.digestHex(), expiresAtMillis);
+        jdbcTemplate.query(NOTIFY_SQL, rs -> { }, RevocationChannel.CHANNEL, revocation.toPayload());
+
+        // This node honours the revocation once committed rather than waiting for its own notification
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenBlacklist.add(revocation.digest(), expiresAtMillis);
+                }
+            });
+        } else {
+            tokenBlacklist.add(revocation.digest(), expiresAtMillis);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String token, long expiresAtMillis) {
+        return tokenBlacklist.contains(token, expiresAtMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        channel = new RevocationChannel(() -> DriverManager.getConnection(url, username, password),
+                revocation -> tokenBlacklist.add(revocation.digest(), revocation.expiresAtMillis()),
+                this::loadRevocations, listenTimeoutMs, retryDelayMs);
+        channel.start();
+    }
+
+    @PreDestroy
+    void stopListening() {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(System.currentTimeMillis());
+        logger.debug("Deleted {} expired token revocations", deleted);
+    }
+
+    // Runs after each LISTEN, so revocations committed while disconnected are not missed
+    private void loadRevocations() {
+        int loaded = 0;
+        long now = System.currentTimeMillis();
+        for (RevokedToken revoked : revokedTokenRepository.findByExpiresAtMillisGreaterThan(now)) {
+            tokenBlacklist.add(Revocation.parseDigest(revoked.getTokenDigest()), revoked.getExpiresAtMillis());
+            loaded++;
+        }
+        logger.info("Loaded {} token revocations", loaded);
+    }
+}
@@ -0,0 +1,96 @@
+package com.blogpost.app.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blogpost.app.entity.User;
+import com.blogpost.app.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded, expiring cache of the user fields the authentication filter checks
+ * on every request, so a valid token normally authenticates without touching
+ * the database. Entries are dropped whenever the user's name, role or token
+ * version changes, or the user is deleted; the TTL bounds staleness for any
+ * change made outside the services.
+ */
+@Component
+public class PrincipalCache {
+
+    public record CachedPrincipal(Long userId, String username, String firstName, String lastName,
+            String role, int tokenVersion) {
+
+        static CachedPrincipal of(User user) {
+            return new CachedPrincipal(
+                    user.getId(),
+                    user.getUserName(),
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getRole() != null ? user.getRole().toString() : "USER",
+                    user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.principal-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<Long, CachedPrincipal> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /** Returns the user's current principal, or null if the user no longer exists. */
+    public CachedPrincipal get(Long userId) {
+        return cache.get(userId, id -> userRepository.findById(id).map(CachedPrincipal::of).orElse(null));
+    }
+
+    /**
+     * Drops the user's entry now and again after the surrounding transaction
+     * commits, so a request racing the write cannot cache the old row.
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,16 @@
+package com.blogpost.app.security;
+
+import java.util.Map;
+
+/**
+ * Rate limit state shared by every node in cluster mode: one theoretical
+ * arrival time per policy and key.
+ */
+public interface RateLimitStateStore {
+
+    /**
+     * Advances each key's shared TAT by {@code count} emission intervals, starting
+     * no earlier than {@code nowMicros}, and returns the new shared TATs by key.
+     */
+    Map<String, Long> advance(String policy, Map<String, Long> counts, long nowMicros, long emissionIntervalMicros);
+}
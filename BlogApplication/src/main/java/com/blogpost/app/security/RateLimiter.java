@@ -0,0 +1,128 @@
+package com.blogpost.app.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.blogpost.app.security.GcraRateLimiter.Decision;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The configured rate limit policies, each a {@link GcraRateLimiter} with its
+ * own bounded key space. Login, register and general limits are keyed by client
+ * IP; the writes limit is keyed by authenticated user id.
+ *
+ * With rate-limit.cluster.enabled=true the limiters are periodically synced
+ * through a shared {@link RateLimitStateStore}, so the configured limits hold
+ * across all nodes (approximately) rather than per node.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Policy {
+        LOGIN,
+        REGISTER,
+        GENERAL,
+        WRITES
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    @Autowired(required = false)
+    private RateLimitStateStore stateStore;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${rate-limit.login.limit:5}")
+    private int loginLimit;
+
+    @Value("${rate-limit.login.period-seconds:60}")
+    private long loginPeriodSeconds;
+
+    @Value("${rate-limit.register.limit:3}")
+    private int registerLimit;
+
+    @Value("${rate-limit.register.period-seconds:3600}")
+    private long registerPeriodSeconds;
+
+    @Value("${rate-limit.general.limit:100}")
+    private int generalLimit;
+
+    @Value("${rate-limit.general.period-seconds:60}")
+    private long generalPeriodSeconds;
+
+    @Value("${rate-limit.writes.limit:30}")
+    private int writesLimit;
+
+    @Value("${rate-limit.writes.period-seconds:60}")
+    private long writesPeriodSeconds;
+
+    private final Map<Policy, GcraRateLimiter> limiters = new EnumMap<>(Policy.class);
+
+    @PostConstruct
+    void init() {
+        limiters.put(Policy.LOGIN, new GcraRateLimiter(loginLimit, Duration.ofSeconds(loginPeriodSeconds), maxKeys));
+        limiters.put(Policy.REGISTER, new GcraRateLimiter(registerLimit, Duration.ofSeconds(registerPeriodSeconds), maxKeys));
+        limiters.put(Policy.GENERAL, new GcraRateLimiter(generalLimit, Duration.ofSeconds(generalPeriodSeconds), maxKeys));
+        limiters.put(Policy.WRITES, new GcraRateLimiter(writesLimit, Duration.ofSeconds(writesPeriodSeconds), maxKeys));
+    }
+
+    /**
+     * Takes one request from the key's allowance under the policy and sets the
+     * RateLimit-* headers for it; a later, more specific check overwrites them.
+     */
+    public Decision check(Policy policy, String key, HttpServletResponse response) {
+        GcraRateLimiter limiter = limiters.get(policy);
+        Decision decision = limiter.tryAcquire(key);
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(decision.resetMicros())));
+        response.setHeader("RateLimit-Policy", decision.limit() + ";w=" + limiter.getPeriodSeconds());
+        return decision;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.cluster.sync-interval-ms:1000}")
+    public void syncWithCluster() {
+        if (stateStore == null) {
+            return;
+        }
+        limiters.forEach((policy, limiter) -> {
+            try {
+                limiter.syncWith(policy.name(), stateStore);
+            } catch (RuntimeException e) {
+                logger.warn("Rate limit sync failed for policy {}: {}", policy, e.getMessage());
+            }
+        });
+    }
+
+    public void reject(HttpServletResponse response, Decision decision, String message) throws IOException {
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(toSeconds(decision.retryAfterMicros())));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": \"" + message + "\", \"status\": 429}");
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        limiters.forEach((policy, limiter) -> result.put(policy.name().toLowerCase(), limiter.size()));
+        return result;
+    }
+
+    private static long toSeconds(long micros) {
+        return (micros + TimeUnit.SECONDS.toMicros(1) - 1) / TimeUnit.SECONDS.toMicros(1);
+    }
+}
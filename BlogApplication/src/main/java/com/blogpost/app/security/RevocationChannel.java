@@ -0,0 +1,136 @@
+package com.blogpost.app.security;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives token revocations pushed by other nodes over Postgres LISTEN/NOTIFY.
+ * A daemon thread holds one connection listening on {@link #CHANNEL} and hands
+ * each decoded revocation to the consumer. When the connection drops it
+ * reconnects after a delay; onConnected runs after every successful LISTEN so
+ * the owner can resync anything published while it was not listening.
+ */
+public class RevocationChannel implements AutoCloseable {
+
+    public static final String CHANNEL = "token_revoked";
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationChannel.class);
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection connect() throws SQLException;
+    }
+
+    /** A revoked token digest and its expiry, carried as "hash1hash2:expiresAtMillis" in hex/decimal. */
+    public record Revocation(TokenBlacklist.Digest digest, long expiresAtMillis) {
+
+        public String toPayload() {
+            return String.format("%016x%016x:%d", digest.hash1(), digest.hash2(), expiresAtMillis);
+        }
+
+        public String digestHex() {
+            return String.format("%016x%016x", digest.hash1(), digest.hash2());
+        }
+
+        public static Revocation fromPayload(String payload) {
+            int separator = payload == null ? -1 : payload.indexOf(':');
+            if (separator != 32) {
+                throw new IllegalArgumentException("Malformed revocation payload: " + payload);
+            }
+            return new Revocation(parseDigest(payload.substring(0, 32)),
+                    Long.parseLong(payload.substring(33)));
+        }
+
+        public static TokenBlacklist.Digest parseDigest(String hex) {
+            if (hex.length() != 32) {
+                throw new IllegalArgumentException("Malformed token digest: " + hex);
+            }
+            return new TokenBlacklist.Digest(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                    Long.parseUnsignedLong(hex.substring(16), 16));
+        }
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final Consumer<Revocation> onRevocation;
+    private final Runnable onConnected;
+    private final int pollTimeoutMs;
+    private final long retryDelayMs;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public RevocationChannel(ConnectionFactory connectionFactory, Consumer<Revocation> onRevocation,
+            Runnable onConnected, int pollTimeoutMs, long retryDelayMs) {
+        this.connectionFactory = connectionFactory;
+        this.onRevocation = onRevocation;
+        this.onConnected = onConnected;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "token-revocation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = connectionFactory.connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection listener = connection.unwrap(PGConnection.class);
+                onConnected.run();
+
+                while (running) {
+                    PGNotification[] notifications = listener.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Token revocation listener lost its connection, retrying in {} ms: {}",
+                        retryDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            onRevocation.accept(Revocation.fromPayload(payload));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring token revocation notification: {}", e.getMessage());
+        }
+    }
+}
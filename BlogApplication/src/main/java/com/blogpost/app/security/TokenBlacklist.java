@@ -0,0 +1,157 @@
+package com.blogpost.app.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Invalidated tokens that have not yet expired. Each token is stored as a
+ * 128-bit SHA-256 prefix in a bucket keyed by its expiry time, so a whole
+ * bucket is dropped at once when it expires and no token is ever parsed again.
+ * Lookups pass the expiry of the already verified token to find its bucket.
+ *
+ * A Bloom filter in front answers the common "not blacklisted" case without
+ * touching the buckets. It is rebuilt from the live digests once enough
+ * expired entries have left stale bits behind, or the set outgrows it.
+ */
+@Component
+public class TokenBlacklist {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklist.class);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    public record Digest(long hash1, long hash2) {
+
+        public static Digest of(String token) {
+            ByteBuffer bytes = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new Digest(bytes.getLong(), bytes.getLong());
+        }
+    }
+
+    @Value("${security.token-blacklist.bucket-seconds:60}")
+    private long bucketSeconds;
+
+    @Value("${security.token-blacklist.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${security.token-blacklist.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Epoch millis; replaced in tests
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final NavigableMap<Long, Set<Digest>> buckets = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+    private volatile BloomFilter bloom;
+    private int bloomCapacity;
+    private int size;
+    private int removedSinceRebuild;
+
+    @PostConstruct
+    void init() {
+        bloomCapacity = expectedEntries;
+        bloom = new BloomFilter(bloomCapacity, falsePositiveRate);
+    }
+
+    public void add(String token, long expiresAtMillis) {
+        add(Digest.of(token), expiresAtMillis);
+    }
+
+    public void add(Digest digest, long expiresAtMillis) {
+        if (expiresAtMillis <= clock.getAsLong()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (buckets.computeIfAbsent(bucketOf(expiresAtMillis), k -> ConcurrentHashMap.newKeySet()).add(digest)) {
+                size++;
+                if (size > bloomCapacity) {
+                    rebuildBloom();
+                } else {
+                    bloom.add(digest.hash1(), digest.hash2());
+                }
+            }
+        }
+    }
+
+    public boolean contains(String token, long expiresAtMillis) {
+        return contains(Digest.of(token), expiresAtMillis);
+    }
+
+    public boolean contains(Digest digest, long expiresAtMillis) {
+        if (!bloom.mightContain(digest.hash1(), digest.hash2())) {
+            return false;
+        }
+        Set<Digest> bucket = buckets.get(bucketOf(expiresAtMillis));
+        return bucket != null && bucket.contains(digest);
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-blacklist.sweep-interval-ms:60000}")
+    public void dropExpired() {
+        // A bucket is expired once its whole time window lies in the past
+        long currentBucket = bucketOf(clock.getAsLong());
+        synchronized (writeLock) {
+            NavigableMap<Long, Set<Digest>> expired = buckets.headMap(currentBucket, false);
+            int removed = 0;
+            for (Set<Digest> bucket : expired.values()) {
+                removed += bucket.size();
+            }
+            expired.clear();
+            size -= removed;
+            removedSinceRebuild += removed;
+
+            if (removedSinceRebuild > Math.max(size, expectedEntries / 4)) {
+                rebuildBloom();
+            }
+        }
+        logger.debug("Token blacklist sweep completed. Current size: {}", size);
+    }
+
+    public Map<String, Object> stats() {
+        synchronized (writeLock) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("size", size);
+            result.put("buckets", buckets.size());
+            result.put("bloomCapacity", bloomCapacity);
+            return result;
+        }
+    }
+
+    private long bucketOf(long expiresAtMillis) {
+        return Math.floorDiv(expiresAtMillis, bucketSeconds * 1000);
+    }
+
+    private void rebuildBloom() {
+        bloomCapacity = Math.max(expectedEntries, size * 2);
+        BloomFilter rebuilt = new BloomFilter(bloomCapacity, falsePositiveRate);
+        for (Set<Digest> bucket : buckets.values()) {
+            for (Digest digest : bucket) {
+                rebuilt.add(digest.hash1(), digest.hash2());
+            }
+        }
+        bloom = rebuilt;
+        removedSinceRebuild = 0;
+    }
+}
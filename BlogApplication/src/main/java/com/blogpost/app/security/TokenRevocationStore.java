@@ -0,0 +1,12 @@
+package com.blogpost.app.security;
+
+/**
+ * Where invalidated tokens are recorded until they expire. Checks must stay
+ * local lookups: they run on every authenticated request.
+ */
+public interface TokenRevocationStore {
+
+    void revoke(String token, long expiresAtMillis);
+
+    boolean isRevoked(String token, long expiresAtMillis);
+}
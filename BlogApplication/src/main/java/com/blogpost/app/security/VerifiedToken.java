@@ -0,0 +1,23 @@
+package com.blogpost.app.security;
+
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * The claims of a token whose signature and expiry have been checked, decoded
+ * once so callers can read every field without parsing the token again.
+ */
+public record VerifiedToken(String username, Long userId, String role, Integer tokenVersion,
+        Date issuedAt, Date expiration) {
+
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("role", String.class),
+                claims.get("tokenVersion", Integer.class),
+                claims.getIssuedAt(),
+                claims.getExpiration());
+    }
+}
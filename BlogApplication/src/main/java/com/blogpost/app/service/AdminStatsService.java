@@ -0,0 +1,210 @@
+package com.blogpost.app.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blogpost.app.entity.DailyStats;
+import com.blogpost.app.repository.DailyStatsRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Serves the admin dashboard totals from memory. The write paths report their
+ * deltas through {@link #adjust}, applied once the transaction commits; a
+ * scheduled reconcile replaces the totals with fresh counts to fix drift.
+ *
+ * In "exact" mode the reconcile runs COUNT(*) over each table; in "approximate"
+ * mode it reads the planner's row estimates (pg_class.reltuples), which costs
+ * nothing but is only as fresh as the last ANALYZE. The totals are also rolled
+ * up into daily_stats, and per-day growth is computed from those rows.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminStatsService.class);
+    private static final int MAX_GROWTH_DAYS = 365;
+
+    private static final String EXACT_COUNTS_SQL =
+            "SELECT (SELECT COUNT(*) FROM users), (SELECT COUNT(*) FROM posts), " +
+            "(SELECT COUNT(*) FROM comments), (SELECT COUNT(*) FROM likes)";
+
+    // reltuples is -1 for a table that has never been analyzed
+    private static final String ESTIMATED_COUNT_SQL =
+            "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DailyStatsRepository dailyStatsRepository;
+
+    @Value("${admin.stats.mode:exact}")
+    private String mode;
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong posts = new AtomicLong();
+    private final AtomicLong comments = new AtomicLong();
+    private final AtomicLong likes = new AtomicLong();
+    private volatile LocalDateTime reconciledAt;
+    private volatile LocalDateTime updatedAt;
+
+    public boolean isApproximate() {
+        return "approximate".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Records a change to the totals. Inside a transaction the change is applied
+     * after commit, so rolled back writes never reach the dashboard.
+     */
+    public void adjust(long usersDelta, long postsDelta, long commentsDelta, long likesDelta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(usersDelta, postsDelta, commentsDelta, likesDelta);
+                }
+            });
+        } else {
+            apply(usersDelta, postsDelta, commentsDelta, likesDelta);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${admin.stats.reconcile-interval-ms:3600000}",
+            initialDelayString = "${admin.stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        long[] counts = isApproximate() ? estimatedCounts() : exactCounts();
+
+        // Writes committing while the counts run may be counted twice or missed;
+        // the next reconcile corrects them
+        users.set(counts[0]);
+        posts.set(counts[1]);
+        comments.set(counts[2]);
+        likes.set(counts[3]);
+        reconciledAt = LocalDateTime.now();
+        updatedAt = reconciledAt;
+
+        logger.info("Admin stats reconciled ({} mode) in {} ms", isApproximate() ? "approximate" : "exact",
+                System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(cron = "${admin.stats.rollup.cron:0 */15 * * * *}")
+    public void rollup() {
+        if (reconciledAt == null) {
+            return;
+        }
+        dailyStatsRepository.save(DailyStats.builder()
+                .statDate(LocalDate.now())
+                .usersTotal(users.get())
+                .postsTotal(posts.get())
+                .commentsTotal(comments.get())
+                .likesTotal(likes.get())
+                .capturedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @PreDestroy
+    void rollupOnShutdown() {
+        rollup();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalUsers", users.get());
+        result.put("totalPosts", posts.get());
+        result.put("totalComments", comments.get());
+        result.put("totalLikes", likes.get());
+        result.put("mode", isApproximate() ? "approximate" : "exact");
+        result.put("reconciledAt", reconciledAt);
+        result.put("asOf", updatedAt);
+        return result;
+    }
+
+    /**
+     * Net new users, posts, comments and likes per day for the last {@code days}
+     * days, oldest first. Today's figures use the live totals.
+     */
+    public List<Map<String, Object>> getGrowth(int days) {
+        int span = Math.max(1, Math.min(days, MAX_GROWTH_DAYS));
+        LocalDate today = LocalDate.now();
+        // One extra day as the baseline for the oldest delta
+        List<DailyStats> rows = new ArrayList<>(
+                dailyStatsRepository.findByStatDateGreaterThanEqualOrderByStatDateAsc(today.minusDays(span)));
+        rows.removeIf(row -> row.getStatDate().equals(today));
+        if (reconciledAt != null) {
+            rows.add(DailyStats.builder()
+                    .statDate(today)
+                    .usersTotal(users.get())
+                    .postsTotal(posts.get())
+                    .commentsTotal(comments.get())
+                    .likesTotal(likes.get())
+                    .capturedAt(updatedAt)
+                    .build());
+        }
+
+        List<Map<String, Object>> growth = new ArrayList<>();
+        for (int i = 1; i < rows.size(); i++) {
+            DailyStats previous = rows.get(i - 1);
+            DailyStats current = rows.get(i);
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("date", current.getStatDate());
+            day.put("newUsers", current.getUsersTotal() - previous.getUsersTotal());
+            day.put("newPosts", current.getPostsTotal() - previous.getPostsTotal());
+            day.put("newComments", current.getCommentsTotal() - previous.getCommentsTotal());
+            day.put("newLikes", current.getLikesTotal() - previous.getLikesTotal());
+            day.put("totalUsers", current.getUsersTotal());
+            day.put("totalPosts", current.getPostsTotal());
+            day.put("totalComments", current.getCommentsTotal());
+            day.put("totalLikes", current.getLikesTotal());
+            growth.add(day);
+        }
+        return growth;
+    }
+
+    private void apply(long usersDelta, long postsDelta, long commentsDelta, long likesDelta) {
+        users.addAndGet(usersDelta);
+        posts.addAndGet(postsDelta);
+        comments.addAndGet(commentsDelta);
+        likes.addAndGet(likesDelta);
+        updatedAt = LocalDateTime.now();
+    }
+
+    private long[] exactCounts() {
+        return jdbcTemplate.queryForObject(EXACT_COUNTS_SQL, (rs, rowNum) ->
+                new long[] { rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4) });
+    }
+
+    private long[] estimatedCounts() {
+        String[] tables = { "users", "posts", "comments", "likes" };
+        long[] counts = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            Long estimate = jdbcTemplate.queryForObject(ESTIMATED_COUNT_SQL, Long.class, tables[i]);
+            counts[i] = estimate != null && estimate >= 0
+                    ? estimate
+                    : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tables[i], Long.class);
+        }
+        return counts;
+    }
+}
@@ -1,24 +1,38 @@
 package com.blogpost.app.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.blogpost.app.dto.CommentRequest;
 import com.blogpost.app.dto.CommentResponse;
+import com.blogpost.app.dto.CursorPage;
 import com.blogpost.app.entity.Comment;
 import com.blogpost.app.entity.Post;
 import com.blogpost.app.entity.User;
+import com.blogpost.app.event.PostChangedEvent;
+import com.blogpost.app.repository.CommentNode;
 import com.blogpost.app.repository.CommentRepository;
 import com.blogpost.app.repository.PostRepository;
 import com.blogpost.app.repository.UserRepository;
+import com.blogpost.app.repository.UserStatsRepository;
+import com.blogpost.app.utils.Cursor;
 
 @Service
 @Transactional
 public class CommentService {
+
+    private static final int MAX_COMMENTS_PAGE_SIZE = 50;
+    private static final int MAX_THREAD_REPLIES = 50;
+    private static final int MAX_REPLY_DEPTH = 50;
     
     @Autowired
     private CommentRepository commentRepository;
@@ -28,6 +42,15 @@ public class CommentService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     public CommentResponse addComment(Long postId, CommentRequest commentRequest) {
         // Find post and user
@@ -45,8 +68,28 @@ public class CommentService {
                 .post(post)
                 .user(user)
                 .build();
+
+        // A reply inherits its thread position from the parent, so it is still a single insert
+        if (commentRequest.getParentId() != null) {
+            Comment parent = commentRepository.findById(commentRequest.getParentId())
+                    .orElseThrow(() -> new RuntimeException("Parent comment not found"));
+            if (!parent.getPost().getId().equals(postId)) {
+                throw new RuntimeException("Parent comment belongs to another post");
+            }
+            if (parent.getDepth() + 1 > MAX_REPLY_DEPTH) {
+                throw new RuntimeException("Reply thread is too deep");
+            }
+            comment.setParent(parent);
+            comment.setRootId(parent.getRootId() != null ? parent.getRootId() : parent.getId());
+            comment.setDepth(parent.getDepth() + 1);
+            comment.setPath(parent.childPath());
+        }
         
         Comment savedComment = commentRepository.save(comment);
+        postRepository.adjustCommentsCount(postId, 1);
+        userStatsRepository.adjust(user.getId(), 0, 1, 0);
+        adminStatsService.adjust(0, 0, 1, 0);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Type.COMMENTED, user.getId()));
         
         return mapToCommentResponse(savedComment);
     }
@@ -58,6 +101,29 @@ public class CommentService {
                 .collect(Collectors.toList());
     }
     
+    public CursorPage<CommentResponse> getCommentsByPostId(Long postId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_COMMENTS_PAGE_SIZE));
+        // One extra row tells whether another page exists without a COUNT
+        List<Comment> comments = commentRepository.findByPostIdAfter(postId, after.createdAt(), after.id(),
+                Limit.of(limit + 1));
+
+        boolean hasNext = comments.size() > limit;
+        List<Comment> page = hasNext ? comments.subList(0, limit) : comments;
+        String nextCursor = null;
+        if (hasNext) {
+            Comment last = page.get(page.size() - 1);
+            nextCursor = Cursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<CommentResponse>builder()
+                .content(page.stream().map(this::mapToCommentResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(limit)
+                .build();
+    }
+    
     public boolean deleteComment(Long commentId, Long userId, boolean isAdmin) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
@@ -70,19 +136,115 @@ public class CommentService {
             throw new SecurityException("Not authorized to delete this comment");
         }
 
-        commentRepository.delete(comment);
+        // Replies go with the comment they answer
+        String fromPath = comment.childPath();
+        userStatsRepository.subtractCommentSubtree(commentId, fromPath, pathUpperBound(fromPath));
+        int deleted = commentRepository.deleteSubtree(commentId, fromPath, pathUpperBound(fromPath));
+        postRepository.adjustCommentsCount(comment.getPost().getId(), -deleted);
+        adminStatsService.adjust(0, 0, -deleted, 0);
+        eventPublisher.publishEvent(new PostChangedEvent(comment.getPost().getId(),
+                PostChangedEvent.Type.COMMENT_DELETED, comment.getUser().getId(), deleted));
         return true;
     }
     
+    /**
+     * A page of top-level comments, newest first, each with up to replyLimit replies
+     * of its thread in depth-first order. One query, assembled in linear time.
+     */
+    public CursorPage<CommentResponse> getThreadsByPostId(Long postId, String cursor, int size, int replyLimit) {
+        Cursor after = Cursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_COMMENTS_PAGE_SIZE));
+        int replies = Math.max(0, Math.min(replyLimit, MAX_THREAD_REPLIES));
+        List<CommentNode> rows = commentRepository.findThreadsAfter(postId, after.createdAt(), after.id(),
+                limit + 1, replies);
+
+        List<CommentResponse> threads = assembleTree(rows);
+        boolean hasNext = threads.size() > limit;
+        List<CommentResponse> page = hasNext ? threads.subList(0, limit) : threads;
+        String nextCursor = null;
+        if (hasNext) {
+            CommentResponse last = page.get(page.size() - 1);
+            nextCursor = Cursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<CommentResponse>builder()
+                .content(page)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(limit)
+                .build();
+    }
+
+    /** A comment with every reply below it, nested. */
+    public CommentResponse getThread(Long commentId) {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new RuntimeException("Comment not found"));
+        String fromPath = comment.childPath();
+        List<CommentResponse> tree = assembleTree(
+                commentRepository.findSubtree(commentId, fromPath, pathUpperBound(fromPath)));
+        return tree.isEmpty() ? null : tree.get(0);
+    }
+
+    /** Removes all comments of a post in one statement (used when the post is deleted). */
+    public int deleteAllForPost(Long postId) {
+        return commentRepository.deleteAllByPostId(postId);
+    }
+    
     public Long getCommentCountByPostId(Long postId) {
-        return commentRepository.countByPostId(postId);
+        return postRepository.findCommentsCountById(postId).orElse(0).longValue();
     }
     
+    // Rows are depth-first, so each parent is already in the map when its replies arrive
+    private List<CommentResponse> assembleTree(List<CommentNode> rows) {
+        Map<Long, CommentResponse> byId = new HashMap<>(rows.size() * 2);
+        List<CommentResponse> roots = new ArrayList<>();
+        for (CommentNode row : rows) {
+            CommentResponse node = mapToCommentResponse(row);
+            byId.put(node.getId(), node);
+
+            CommentResponse parent = row.getParentId() != null ? byId.get(row.getParentId()) : null;
+            if (parent != null) {
+                parent.getReplies().add(node);
+            } else {
+                if (row.getParentId() == null) {
+                    node.setReplyCount(row.getThreadReplies());
+                }
+                roots.add(node);
+            }
+        }
+        return roots;
+    }
+
+    // Smallest string above every path that starts with the given prefix (which ends in '/')
+    private static String pathUpperBound(String prefix) {
+        return prefix.substring(0, prefix.length() - 1) + (char) ('/' + 1);
+    }
+
+    private CommentResponse mapToCommentResponse(CommentNode comment) {
+        return CommentResponse.builder()
+                .id(comment.getId())
+                .content(comment.getContent())
+                .createdAt(comment.getCreatedAt())
+                .parentId(comment.getParentId())
+                .depth(comment.getDepth())
+                .replies(new ArrayList<>())
+                .user(CommentResponse.UserResponse.builder()
+                        .id(comment.getUserId())
+                        .userName(comment.getUserName())
+                        .firstName(comment.getFirstName())
+                        .lastName(comment.getLastName())
+                        .avatarUrl(comment.getAvatarUrl())
+                        .build())
+                .build();
+    }
+
     private CommentResponse mapToCommentResponse(Comment comment) {
         return CommentResponse.builder()
                 .id(comment.getId())
                 .content(comment.getContent())
                 .createdAt(comment.getCreatedAt())
+                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
+                .depth(comment.getDepth())
                 .user(CommentResponse.UserResponse.builder()
                         .id(comment.getUser().getId())
                         .userName(comment.getUser().getUserName())
@@ -1,9 +1,26 @@
 package com.blogpost.app.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,13 +29,25 @@ import com.blogpost.app.dto.LikeResponse;
 import com.blogpost.app.entity.Like;
 import com.blogpost.app.entity.Post;
 import com.blogpost.app.entity.User;
+import com.blogpost.app.event.PostChangedEvent;
+import com.blogpost.app.likes.LikeIndex;
 import com.blogpost.app.repository.LikeRepository;
+import com.blogpost.app.repository.LikeUser;
 import com.blogpost.app.repository.PostRepository;
 import com.blogpost.app.repository.UserRepository;
+import com.blogpost.app.repository.UserStatsRepository;
+import com.blogpost.app.utils.Cursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 @Transactional
 public class LikeService {
+
+    private static final int MAX_LIKES_PAGE_SIZE = 100;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final String STREAM_LIKES_SQL =
+            "SELECT u.user_name, l.created_at FROM likes l JOIN users u ON u.id = l.user_id " +
+            "WHERE l.post_id = ? ORDER BY l.created_at DESC, l.id DESC";
     
     @Autowired
     private LikeRepository likeRepository;
@@ -28,8 +57,38 @@ public class LikeService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private LikeIndex likeIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @Autowired
+    void setDataSource(DataSource dataSource) {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+    }
     
     public LikeResponse toggleLike(Long postId, LikeRequest likeRequest) {
+        if (likeWriteBuffer.isEnabled()) {
+            return toggleLikeBuffered(postId, likeRequest);
+        }
+
         // Find post and user
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
@@ -46,6 +105,10 @@ public class LikeService {
         if (existingLike.isPresent()) {
             // Unlike - remove the like
             likeRepository.delete(existingLike.get());
+            postRepository.adjustLikesCount(postId, -1);
+            userStatsRepository.adjust(user.getId(), 0, 0, -1);
+            adminStatsService.adjust(0, 0, 0, -1);
+            eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Type.UNLIKED, user.getId()));
             isLiked = false;
         } else {
             // Like - add new like
@@ -54,12 +117,40 @@ public class LikeService {
                     .user(user)
                     .build();
             likeRepository.save(like);
+            postRepository.adjustLikesCount(postId, 1);
+            userStatsRepository.adjust(user.getId(), 0, 0, 1);
+            adminStatsService.adjust(0, 0, 0, 1);
+            eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Type.LIKED, user.getId()));
             isLiked = true;
         }
         
-        // Get updated counts and user list
-        Long likesCount = likeRepository.countByPostId(postId);
-        
+        // The like index only catches up after commit, so read the counter this transaction just adjusted
+        Long likesCount = postRepository.findLikesCountById(postId).orElse(0).longValue();
+
+        return LikeResponse.builder()
+                .isLiked(isLiked)
+                .likesCount(likesCount)
+                .count(likesCount)
+                .build();
+    }
+    
+    // Write-behind mode: reads only, the like row and counter are written by the next flush
+    private LikeResponse toggleLikeBuffered(Long postId, LikeRequest likeRequest) {
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+
+        User user = userRepository.getByUserName(likeRequest.getUsername());
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+
+        boolean isLiked = likeWriteBuffer.toggle(postId, user.getId(), () -> likeIndex.isReady()
+                ? likeIndex.isLiked(postId, user.getId())
+                : likeRepository.existsByPostIdAndUserId(postId, user.getId()));
+        Long likesCount = Math.max(0, likeWriteBuffer.projectedCount(postId,
+                () -> postRepository.findLikesCountById(postId).orElse(0)));
+
         return LikeResponse.builder()
                 .isLiked(isLiked)
                 .likesCount(likesCount)
@@ -68,7 +159,7 @@ public class LikeService {
     }
     
     public LikeResponse getLikesForPost(Long postId) {
-        Long likesCount = likeRepository.countByPostId(postId);
+        Long likesCount = getLikeCountByPostId(postId);
         List<String> usernames = likeRepository.findUsernamesByPostId(postId);
         
         return LikeResponse.builder()
@@ -78,16 +169,116 @@ public class LikeService {
                 .build();
     }
     
+    /**
+     * One page of likers, newest first, continuing after the given cursor.
+     * The total comes from the post's maintained counter.
+     */
+    public LikeResponse getLikesForPost(Long postId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_LIKES_PAGE_SIZE));
+        List<LikeUser> likes = likeRepository.findLikeUsersAfter(postId, after.createdAt(), after.id(), limit + 1);
+
+        boolean hasNext = likes.size() > limit;
+        List<LikeUser> page = hasNext ? likes.subList(0, limit) : likes;
+        String nextCursor = null;
+        if (hasNext) {
+            LikeUser last = page.get(page.size() - 1);
+            nextCursor = Cursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        Long likesCount = getLikeCountByPostId(postId);
+        return LikeResponse.builder()
+                .count(likesCount)
+                .likesCount(likesCount)
+                .users(page.stream().map(LikeUser::getUserName).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Writes every liker of the post as NDJSON ({"userName":..,"likedAt":..} per line),
+     * newest first, reading through a server-side cursor so memory use is bounded
+     * by the fetch size rather than the number of likes.
+     */
+    // PostgreSQL only honours the fetch size inside a transaction (autocommit off)
+    @Transactional(readOnly = true)
+    public void streamLikesForPost(Long postId, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        streamingJdbcTemplate.query(STREAM_LIKES_SQL, rs -> {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("userName", rs.getString(1));
+            line.put("likedAt", rs.getTimestamp(2) != null ? rs.getTimestamp(2).toLocalDateTime() : null);
+            try {
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, postId);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public boolean isPostLikedByUser(Long postId, String username) {
         User user = userRepository.getByUserName(username);
         if (user == null) {
             return false;
         }
         
+        Boolean pending = likeWriteBuffer.pendingState(postId, user.getId());
+        if (pending != null) {
+            return pending;
+        }
+        if (likeIndex.isReady()) {
+            return likeIndex.isLiked(postId, user.getId());
+        }
         return likeRepository.existsByPostIdAndUserId(postId, user.getId());
     }
     
+    /**
+     * Resolves which of the given posts the user has liked with a single IN query,
+     * so a page of posts costs one lookup instead of one per post.
+     */
+    public Set<Long> getLikedPostIds(Collection<Long> postIds, String username) {
+        if (username == null || postIds.isEmpty()) {
+            return Set.of();
+        }
+
+        User user = userRepository.getByUserName(username);
+        if (user == null) {
+            return Set.of();
+        }
+
+        Set<Long> likedPostIds = likeIndex.isReady()
+                ? likeIndex.likedPostIds(user.getId(), postIds)
+                : new HashSet<>(likeRepository.findLikedPostIds(user.getId(), postIds));
+        if (likeWriteBuffer.isEnabled()) {
+            for (Long postId : postIds) {
+                Boolean pending = likeWriteBuffer.pendingState(postId, user.getId());
+                if (pending != null) {
+                    if (pending) {
+                        likedPostIds.add(postId);
+                    } else {
+                        likedPostIds.remove(postId);
+                    }
+                }
+            }
+        }
+        return likedPostIds;
+    }
+    
+    /** Net likes toggled on the post but not yet written by the write-behind buffer. */
+    public long getPendingLikeDelta(Long postId) {
+        return likeWriteBuffer.pendingDelta(postId);
+    }
+
     public Long getLikeCountByPostId(Long postId) {
-        return likeRepository.countByPostId(postId);
+        long count = likeWriteBuffer.projectedCount(postId, () -> likeIndex.isReady()
+                ? likeIndex.likeCount(postId)
+                : postRepository.findLikesCountById(postId).orElse(0));
+        return Math.max(0, count);
     }
 }
\ No newline at end of file
@@ -0,0 +1,386 @@
+package com.blogpost.app.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blogpost.app.event.PostChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for like toggles (likes.write-behind.enabled=true).
+ *
+ * A toggle only updates memory: the user's desired state goes into the post's
+ * pending map and the post's projected count delta into a LongAdder, so hot posts
+ * are never contended on a row lock. Per-user updates are atomic through
+ * ConcurrentHashMap.compute; nothing else takes a lock.
+ *
+ * Every flush writes at most one idempotent operation per (post, user) - an
+ * INSERT ... ON CONFLICT DO NOTHING or a DELETE - so repeated toggles within a
+ * window collapse to their net result. Counters are adjusted by the rows that
+ * actually changed, and LIKED/UNLIKED events are published for those rows only.
+ * Entries are retired after the flush commits; a toggle that raced the flush
+ * stays pending, rebased onto the state just written. Flushes never overlap,
+ * the shutdown flush included.
+ *
+ * Between the commit and the retirement a like is both persisted and pending.
+ * The flush generation is odd over that window, from beforeCommit until the
+ * entries are retired, and {@link #projectedCount} retries any read that
+ * overlapped it, so a count is never taken from both sides at once.
+ *
+ * If the batch fails, its entries are retried one transaction each so a single
+ * bad row cannot hold back the rest; an entry that keeps violating a constraint
+ * is dropped after likes.write-behind.max-flush-attempts tries.
+ */
+@Component
+public class LikeWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    private static final String INSERT_LIKE_SQL =
+            "INSERT INTO likes (user_id, post_id, created_at) SELECT ?, ?, ? " +
+            "WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?) AND EXISTS (SELECT 1 FROM users WHERE id = ?) " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING";
+    private static final String DELETE_LIKE_SQL = "DELETE FROM likes WHERE user_id = ? AND post_id = ?";
+    private static final String ADJUST_USER_STATS_SQL =
+            "INSERT INTO user_stats (user_id, posts_count, comments_count, likes_given_count, last_active_at) " +
+            "VALUES (?, 0, 0, GREATEST(?, 0), ?) ON CONFLICT (user_id) DO UPDATE SET " +
+            "likes_given_count = GREATEST(user_stats.likes_given_count + ?, 0), last_active_at = EXCLUDED.last_active_at";
+    private static final String ADJUST_COUNT_SQL =
+            "UPDATE posts SET likes_count = GREATEST(likes_count + ?, 0), last_activity_at = ? WHERE id = ?";
+
+    // persisted: the state in the database when the entry was created or last flushed
+    private static final class PendingLike {
+        final boolean persisted;
+        final boolean liked;
+        // Only touched by the flush
+        int failedFlushes;
+
+        PendingLike(boolean persisted, boolean liked) {
+            this.persisted = persisted;
+            this.liked = liked;
+        }
+
+        int delta() {
+            return liked == persisted ? 0 : (liked ? 1 : -1);
+        }
+    }
+
+    private static final class PostLikes {
+        final LongAdder delta = new LongAdder();
+        final Map<Long, PendingLike> pending = new ConcurrentHashMap<>();
+    }
+
+    private record Flushed(Long postId, Long userId, PendingLike like) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Value("${likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${likes.write-behind.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    private static final int MAX_PROJECTION_ATTEMPTS = 100;
+
+    private final Map<Long, PostLikes> posts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong flushGeneration = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Flips the user's like on the post and returns the new state. isLikedInDb is
+     * only consulted when nothing is pending for the user.
+     */
+    public boolean toggle(Long postId, Long userId, BooleanSupplier isLikedInDb) {
+        PostLikes postLikes = posts.computeIfAbsent(postId, id -> new PostLikes());
+        Boolean persisted = postLikes.pending.containsKey(userId) ? null : isLikedInDb.getAsBoolean();
+
+        PendingLike updated = postLikes.pending.compute(userId, (id, current) -> {
+            // persisted is null only if a flush retired the entry since the check above
+            boolean inDb = current != null ? current.persisted
+                    : persisted != null ? persisted : isLikedInDb.getAsBoolean();
+            PendingLike next = new PendingLike(inDb, current != null ? !current.liked : !inDb);
+            postLikes.delta.add(next.delta() - (current != null ? current.delta() : 0));
+            return next;
+        });
+        return updated.liked;
+    }
+
+    /** The user's buffered state for the post, or null when nothing is pending. */
+    public Boolean pendingState(Long postId, Long userId) {
+        PostLikes postLikes = posts.get(postId);
+        PendingLike like = postLikes != null ? postLikes.pending.get(userId) : null;
+        return like != null ? like.liked : null;
+    }
+
+    /** Likes buffered but not yet reflected in posts.likes_count. */
+    public long pendingDelta(Long postId) {
+        PostLikes postLikes = posts.get(postId);
+        return postLikes != null ? postLikes.delta.sum() : 0;
+    }
+
+    /**
+     * The persisted count plus the pending delta, read outside any flush commit
+     * so the likes it wrote are counted exactly once. Gives up waiting after
+     * MAX_PROJECTION_ATTEMPTS and returns the last sum.
+     */
+    public long projectedCount(Long postId, LongSupplier persistedCount) {
+        long count = 0;
+        for (int attempt = 0; attempt < MAX_PROJECTION_ATTEMPTS; attempt++) {
+            long generation = flushGeneration.get();
+            count = persistedCount.getAsLong() + pendingDelta(postId);
+            if ((generation & 1) == 0 && flushGeneration.get() == generation) {
+                return count;
+            }
+            Thread.yield();
+        }
+        return count;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled || posts.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<Flushed> batch = new ArrayList<>();
+        posts.forEach((postId, postLikes) -> postLikes.pending.forEach((userId, like) ->
+                batch.add(new Flushed(postId, userId, like))));
+        if (batch.isEmpty()) {
+            posts.entrySet().removeIf(entry -> entry.getValue().pending.isEmpty());
+            return;
+        }
+
+        try {
+            writeAndRetire(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Like flush failed for {} pending toggles, retrying them one by one: {}",
+                    batch.size(), e.getMessage());
+            flushEach(batch);
+        }
+        posts.entrySet().removeIf(entry -> entry.getValue().pending.isEmpty());
+    }
+
+    /**
+     * Drops a deleted user's buffered toggles so they are never flushed. Inside a
+     * transaction this happens after commit, so a delete that rolls back keeps them.
+     */
+    public void removeUser(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUserNow(userId);
+                }
+            });
+        } else {
+            removeUserNow(userId);
+        }
+    }
+
+    private void removeUserNow(Long userId) {
+        posts.values().forEach(postLikes -> postLikes.pending.computeIfPresent(userId, (id, current) -> {
+            postLikes.delta.add(-current.delta());
+            return null;
+        }));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.type() == PostChangedEvent.Type.DELETED) {
+            posts.remove(event.postId());
+        }
+    }
+
+    private void flushEach(List<Flushed> batch) {
+        for (Flushed flushed : batch) {
+            try {
+                writeAndRetire(List.of(flushed));
+            } catch (DataIntegrityViolationException e) {
+                if (++flushed.like().failedFlushes >= maxFlushAttempts) {
+                    logger.error("Dropping like toggle of user {} on post {} after {} failed flushes",
+                            flushed.userId(), flushed.postId(), flushed.like().failedFlushes, e);
+                    drop(flushed);
+                } else {
+                    logger.warn("Like toggle of user {} on post {} failed to flush: {}",
+                            flushed.userId(), flushed.postId(), e.getMessage());
+                }
+                continue;
+            } catch (RuntimeException e) {
+                // Not the row's fault (e.g. the database is unreachable): keep everything for the next flush
+                logger.error("Like flush failed, the remaining toggles stay pending", e);
+                return;
+            }
+        }
+    }
+
+    // Retires the batch only if it committed, inside the odd flush generation (see projectedCount)
+    private void writeAndRetire(List<Flushed> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            write(batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    flushGeneration.incrementAndGet();
+                    committing = true;
+                }
+
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (completionStatus == STATUS_COMMITTED) {
+                        batch.forEach(LikeWriteBuffer.this::retire);
+                    }
+                    if (committing) {
+                        flushGeneration.incrementAndGet();
+                    }
+                }
+            });
+        });
+    }
+
+    private void write(List<Flushed> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Flushed> inserts = new ArrayList<>();
+        List<Flushed> deletes = new ArrayList<>();
+        for (Flushed flushed : batch) {
+            (flushed.like().liked ? inserts : deletes).add(flushed);
+        }
+
+        Map<Long, Integer> netByPost = new HashMap<>();
+        Map<Long, Integer> netByUser = new HashMap<>();
+        if (!inserts.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_LIKE_SQL, inserts.stream()
+                    .map(f -> new Object[] { f.userId(), f.postId(), now, f.postId(), f.userId() })
+                    .toList());
+            applied(inserts, counts, PostChangedEvent.Type.LIKED, 1, netByPost, netByUser);
+        }
+        if (!deletes.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(DELETE_LIKE_SQL, deletes.stream()
+                    .map(f -> new Object[] { f.userId(), f.postId() })
+                    .toList());
+            applied(deletes, counts, PostChangedEvent.Type.UNLIKED, -1, netByPost, netByUser);
+        }
+
+        List<Object[]> adjustments = new ArrayList<>();
+        netByPost.forEach((postId, net) -> {
+            if (net != 0) {
+                adjustments.add(new Object[] { net, now, postId });
+            }
+        });
+        if (!adjustments.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_COUNT_SQL, adjustments);
+        }
+        adminStatsService.adjust(0, 0, 0, netByPost.values().stream().mapToInt(Integer::intValue).sum());
+
+        List<Object[]> userAdjustments = new ArrayList<>();
+        netByUser.forEach((userId, net) -> {
+            if (net != 0) {
+                userAdjustments.add(new Object[] { userId, net, now, net });
+            }
+        });
+        if (!userAdjustments.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_USER_STATS_SQL, userAdjustments);
+        }
+    }
+
+    // Counts and announces only the rows that changed; no-op writes are skipped
+    private void applied(List<Flushed> rows, int[] counts, PostChangedEvent.Type type, int sign,
+            Map<Long, Integer> netByPost, Map<Long, Integer> netByUser) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (counts[i] > 0) {
+                Flushed flushed = rows.get(i);
+                netByPost.merge(flushed.postId(), sign, Integer::sum);
+                netByUser.merge(flushed.userId(), sign, Integer::sum);
+                eventPublisher.publishEvent(new PostChangedEvent(flushed.postId(), type, flushed.userId()));
+            }
+        }
+    }
+
+    private void retire(Flushed flushed) {
+        PostLikes postLikes = posts.get(flushed.postId());
+        if (postLikes == null) {
+            return;
+        }
+        postLikes.pending.compute(flushed.userId(), (id, current) -> {
+            if (current == null) {
+                return null;
+            }
+            if (current == flushed.like()) {
+                postLikes.delta.add(-current.delta());
+                return null;
+            }
+            // Toggled again while flushing: keep it, measured against what was just written
+            PendingLike rebased = new PendingLike(flushed.like().liked, current.liked);
+            postLikes.delta.add(rebased.delta() - current.delta());
+            return rebased;
+        });
+    }
+
+    // Discards an entry that could not be written; a newer toggle since the flush stays pending
+    private void drop(Flushed flushed) {
+        PostLikes postLikes = posts.get(flushed.postId());
+        if (postLikes == null) {
+            return;
+        }
+        postLikes.pending.computeIfPresent(flushed.userId(), (id, current) -> {
+            if (current != flushed.like()) {
+                return current;
+            }
+            postLikes.delta.add(-current.delta());
+            return null;
+        });
+    }
+}
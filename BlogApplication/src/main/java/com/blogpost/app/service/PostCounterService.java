@@ -0,0 +1,69 @@
+package com.blogpost.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blogpost.app.repository.PostRepository;
+
+/**
+ * Repairs the denormalized likes_count / comments_count columns on posts.
+ * Counters are kept current by atomic increments on the write paths; this job
+ * only fixes drift (e.g. rows removed outside the services) by recounting
+ * posts in id-ordered batches, each batch in its own short transaction.
+ *
+ * A batch's rows are locked before they are counted. The write paths insert the
+ * like or comment and then bump the counter, so a write that has not reached its
+ * counter update yet waits on the lock and applies its increment on top of the
+ * recount, while one that already holds the row commits before the counts are
+ * taken. Counting without the lock would overwrite such increments.
+ */
+@Service
+public class PostCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterService.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${posts.counters.repair.batch-size:500}")
+    private int batchSize;
+
+    @Value("${posts.counters.repair.on-startup:true}")
+    private boolean repairOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (repairOnStartup) {
+            repairCounters();
+        }
+    }
+
+    @Scheduled(cron = "${posts.counters.repair.cron:0 30 3 * * *}")
+    public void repairCounters() {
+        long afterId = 0;
+        int repaired = 0;
+
+        Long upperId;
+        while ((upperId = postRepository.findBatchUpperId(afterId, batchSize)) != null) {
+            long lower = afterId;
+            long upper = upperId;
+            repaired += transactionTemplate.execute(status -> {
+                postRepository.lockBatch(lower, upper);
+                return postRepository.recomputeCounters(lower, upper);
+            });
+            afterId = upperId;
+        }
+
+        logger.info("Post counter repair completed. Rows corrected: {}", repaired);
+    }
+}
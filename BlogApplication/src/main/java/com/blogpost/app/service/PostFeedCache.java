@@ -0,0 +1,229 @@
+package com.blogpost.app.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blogpost.app.dto.PostResponse;
+import com.blogpost.app.event.PostChangedEvent;
+import com.blogpost.app.repository.PostRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded (W-TinyLFU, size and TTL limited) cache of the first pages of the public
+ * post feed, author feeds and tag feeds. Cached pages are viewer independent
+ * (isLiked is always false); PostService overlays the viewer's likes afterwards.
+ *
+ * Every feed has a generation, and pages are cached under the generation read
+ * before they were loaded. Creating, editing or deleting a post, or changing its
+ * author's profile, bumps the generations of the feeds it appears in once the
+ * change commits, so pages cached earlier are no longer reachable, including
+ * pages whose load was still running; they age out through the size and TTL
+ * limits. An edit or delete no longer knows which tags the post had, so it bumps
+ * every tag feed. Generations live in a fixed array of stripes: feeds sharing a
+ * stripe only ever invalidate each other early.
+ *
+ * Like and comment changes only alter counters, so a reverse index from post id
+ * to cached pages drops just the pages that show the post.
+ */
+@Component
+public class PostFeedCache {
+
+    public record FeedKey(Feed feed, String key, int page, int size) {
+
+        public static FeedKey all(int page, int size) {
+            return new FeedKey(Feed.ALL, "", page, size);
+        }
+
+        public static FeedKey user(Long userId, int page, int size) {
+            return new FeedKey(Feed.USER, String.valueOf(userId), page, size);
+        }
+
+        public static FeedKey tag(String tagSlug, int page, int size) {
+            return new FeedKey(Feed.TAG, tagSlug, page, size);
+        }
+
+    }
+
+    public enum Feed {
+        ALL,
+        USER,
+        TAG
+    }
+
+    public record CachedPage(List<PostResponse> content, long totalElements) {
+    }
+
+    private record VersionedKey(FeedKey key, long generation) {
+    }
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${posts.feed-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${posts.feed-cache.max-entries:1000}")
+    private long maxEntries;
+
+    @Value("${posts.feed-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${posts.feed-cache.max-pages:3}")
+    private int maxPages;
+
+    private final AtomicLongArray feedGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong tagFeedsGeneration = new AtomicLong();
+    private final Map<Long, Set<VersionedKey>> keysByPostId = new ConcurrentHashMap<>();
+    private Cache<VersionedKey, CachedPage> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .executor(Runnable::run)
+                .removalListener((VersionedKey key, CachedPage page, RemovalCause cause) -> unregister(key, page))
+                .build();
+    }
+
+    /**
+     * Returns the cached page for the key, loading it on a miss. Pages beyond the
+     * configured depth bypass the cache entirely.
+     */
+    public CachedPage get(FeedKey key, Supplier<CachedPage> loader) {
+        if (!enabled || key.page() >= maxPages) {
+            return loader.get();
+        }
+        // Read before loading: a change committed after this point bumps past it
+        VersionedKey versioned = new VersionedKey(key, generation(key.feed(), key.key()));
+        return cache.get(versioned, k -> {
+            CachedPage page = loader.get();
+            for (PostResponse post : page.content()) {
+                keysByPostId.computeIfAbsent(post.getId(), id -> ConcurrentHashMap.newKeySet()).add(k);
+            }
+            return page;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        switch (event.type()) {
+            case CREATED -> {
+                // Every page of the feeds the new post appears in shifts by one
+                bumpFeed(Feed.ALL, "");
+                bumpFeed(Feed.USER, String.valueOf(event.userId()));
+                postRepository.findTagSlugsByPostId(event.postId())
+                        .forEach(slug -> bumpFeed(Feed.TAG, slug));
+            }
+            case UPDATED, DELETED -> {
+                bumpFeed(Feed.ALL, "");
+                if (event.userId() != null) {
+                    bumpFeed(Feed.USER, String.valueOf(event.userId()));
+                }
+                // The tags the post had before the change are gone by now
+                tagFeedsGeneration.incrementAndGet();
+            }
+            default -> invalidatePost(event.postId());
+        }
+    }
+
+    /**
+     * Drops every feed that can show the user's posts, since each post embeds its
+     * author's name and avatar. Inside a transaction this waits for the commit.
+     */
+    public void invalidateAuthor(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAuthorNow(userId);
+                }
+            });
+        } else {
+            invalidateAuthorNow(userId);
+        }
+    }
+
+    private void invalidateAuthorNow(Long userId) {
+        bumpFeed(Feed.ALL, "");
+        bumpFeed(Feed.USER, String.valueOf(userId));
+        tagFeedsGeneration.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadSuccessCount", stats.loadSuccessCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private void invalidatePost(Long postId) {
+        Set<VersionedKey> keys = keysByPostId.get(postId);
+        if (keys != null) {
+            cache.invalidateAll(Set.copyOf(keys));
+        }
+    }
+
+    // Tag feeds add the shared counter, so either bump moves them on; both only grow
+    private long generation(Feed feed, String key) {
+        long generation = feedGenerations.get(stripe(feed, key));
+        return feed == Feed.TAG ? generation + tagFeedsGeneration.get() : generation;
+    }
+
+    private void bumpFeed(Feed feed, String key) {
+        feedGenerations.incrementAndGet(stripe(feed, key));
+    }
+
+    private static int stripe(Feed feed, String key) {
+        return Math.floorMod(Objects.hash(feed, key), GENERATION_STRIPES);
+    }
+
+    private void unregister(VersionedKey key, CachedPage page) {
+        if (key == null || page == null) {
+            return;
+        }
+        for (PostResponse post : page.content()) {
+            keysByPostId.computeIfPresent(post.getId(), (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
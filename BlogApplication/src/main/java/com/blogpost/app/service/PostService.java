@@ -2,27 +2,54 @@ package com.blogpost.app.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.blogpost.app.dto.CursorPage;
 import com.blogpost.app.dto.PostResponse;
 import com.blogpost.app.dto.TagResponse;
 import com.blogpost.app.entity.Post;
+import com.blogpost.app.entity.Tag;
 import com.blogpost.app.entity.User;
+import com.blogpost.app.event.PostChangedEvent;
 import com.blogpost.app.repository.PostRepository;
+import com.blogpost.app.repository.PostSummary;
+import com.blogpost.app.repository.PostVersion;
 import com.blogpost.app.repository.UserRepository;
+import com.blogpost.app.repository.UserStatsRepository;
+import com.blogpost.app.search.InvertedIndex;
+import com.blogpost.app.search.PostSearchIndex;
+import com.blogpost.app.trending.TrendingService;
+import com.blogpost.app.utils.Cursor;
+import com.blogpost.app.utils.SearchCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 @Transactional
 public class PostService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 50;
+    private static final TypeReference<List<TagResponse>> TAG_LIST = new TypeReference<>() {};
+
     @Autowired
     private PostRepository postRepository;
     
@@ -34,6 +61,33 @@ public class PostService {
     
     @Autowired
     private CommentService commentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private PostFeedCache postFeedCache;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     public Post createPost(Post post) {
         User user = userRepository.getByUserName(post.getUser().getUserName());
@@ -47,12 +101,23 @@ public class PostService {
                 .updatedAt(LocalDateTime.now())
                 .build();
         
-        return postRepository.save(postUp);
+        Post saved = postRepository.save(postUp);
+        userStatsRepository.adjust(user.getId(), 1, 0, 0);
+        adminStatsService.adjust(0, 1, 0, 0);
+        if (post.getTags() != null && !post.getTags().isEmpty()) {
+            saved = applyTags(saved, post.getTags());
+        }
+        eventPublisher.publishEvent(new PostChangedEvent(saved.getId(), PostChangedEvent.Type.CREATED, user.getId()));
+        return saved;
     }
     
     public Post getPostById(Long id) {
         return postRepository.findById(id).orElse(null);
     }
+
+    public PostVersion getPostVersion(Long id) {
+        return postRepository.findVersionById(id).orElse(null);
+    }
     
     public List<Post> getAllPosts() {
         return postRepository.findAll();
@@ -60,15 +125,14 @@ public class PostService {
     
     public List<PostResponse> getAllPostsWithUserContext(String username) {
         List<Post> posts = postRepository.findAll();
-        return posts.stream()
-                .map(post -> mapToPostResponse(post, username))
-                .collect(Collectors.toList());
+        return mapToPostResponses(posts, username);
     }
 
     public Page<PostResponse> getAllPostsPaginated(int page, int size, String username) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postRepository.findAllByOrderByCreatedAtDesc(pageable);
-        return posts.map(post -> mapToPostResponse(post, username));
+        PostFeedCache.CachedPage posts = postFeedCache.get(PostFeedCache.FeedKey.all(page, size),
+                () -> toCachedPage(postRepository.findSummaries(pageable)));
+        return withViewerLikes(posts, pageable, username);
     }
 
     public List<Post> getPostsByUserId(Long id) {
@@ -77,31 +141,133 @@ public class PostService {
 
     public List<PostResponse> getPostsByUserIdWithContext(Long userId, String username) {
         List<Post> posts = postRepository.getByUserId(userId);
-        return posts.stream()
-                .map(post -> mapToPostResponse(post, username))
-                .collect(Collectors.toList());
+        return mapToPostResponses(posts, username);
     }
 
     public Page<PostResponse> getPostsByUserIdPaginated(Long userId, int page, int size, String username) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return posts.map(post -> mapToPostResponse(post, username));
+        PostFeedCache.CachedPage posts = postFeedCache.get(PostFeedCache.FeedKey.user(userId, page, size),
+                () -> toCachedPage(postRepository.findSummariesByUserId(userId, pageable)));
+        return withViewerLikes(posts, pageable, username);
     }
 
     public Page<PostResponse> searchPosts(String query, int page, int size, String username) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postRepository.searchPosts(query, pageable);
-        return posts.map(post -> mapToPostResponse(post, username));
+        if (postSearchIndex.isEnabled() && postSearchIndex.isReady()) {
+            InvertedIndex.SearchHits hits = postSearchIndex.search(query, page, size);
+            List<PostSummary> posts = findSummariesInOrder(hits.postIds());
+            return new PageImpl<>(mapSummariesToPostResponses(posts, username), pageable, hits.totalHits());
+        }
+
+        Page<PostSummary> posts = postRepository.searchSummaries(query, pageable);
+        return mapSummaryPage(posts, username);
+    }
+
+    // Ranked in memory by TrendingService; only the requested page is loaded
+    public Page<PostResponse> getTrendingPosts(int page, int size, String username) {
+        Pageable pageable = PageRequest.of(page, size);
+        List<PostSummary> posts = findSummariesInOrder(trendingService.getTrendingPostIds(page, size));
+        return new PageImpl<>(mapSummariesToPostResponses(posts, username), pageable, trendingService.size());
     }
 
     public Page<PostResponse> getPostsByTag(String tagSlug, int page, int size, String username) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postRepository.findByTagSlug(tagSlug, pageable);
-        return posts.map(post -> mapToPostResponse(post, username));
+        PostFeedCache.CachedPage posts = postFeedCache.get(PostFeedCache.FeedKey.tag(tagSlug, page, size),
+                () -> toCachedPage(postRepository.findSummariesByTagSlug(tagSlug, pageable)));
+        return withViewerLikes(posts, pageable, username);
+    }
+    
+    public CursorPage<PostResponse> getPostsByCursor(String cursor, int size, String username) {
+        Cursor after = Cursor.decode(cursor);
+        int limit = cursorPageSize(size);
+        List<PostSummary> posts = postRepository.findSummariesAfter(after.createdAt(), after.id(), limit + 1);
+        return toCursorPage(posts, limit, username);
+    }
+
+    public CursorPage<PostResponse> getPostsByUserIdByCursor(Long userId, String cursor, int size, String username) {
+        Cursor after = Cursor.decode(cursor);
+        int limit = cursorPageSize(size);
+        List<PostSummary> posts = postRepository.findSummariesByUserIdAfter(userId, after.createdAt(), after.id(), limit + 1);
+        return toCursorPage(posts, limit, username);
+    }
+
+    public CursorPage<PostResponse> getPostsByTagByCursor(String tagSlug, String cursor, int size, String username) {
+        Cursor after = Cursor.decode(cursor);
+        int limit = cursorPageSize(size);
+        List<PostSummary> posts = postRepository.findSummariesByTagSlugAfter(tagSlug, after.createdAt(), after.id(), limit + 1);
+        return toCursorPage(posts, limit, username);
+    }
+
+    /**
+     * Ranked like searchPosts and served by the same engine, but paged by a
+     * (score, id) position instead of an offset.
+     */
+    public CursorPage<PostResponse> searchPostsByCursor(String query, String cursor, int size, String username) {
+        SearchCursor after = SearchCursor.decode(cursor);
+        int limit = cursorPageSize(size);
+        List<InvertedIndex.ScoredPost> hits;
+        if (postSearchIndex.isEnabled() && postSearchIndex.isReady()) {
+            hits = postSearchIndex.searchAfter(query, after.score(), after.id(), limit + 1);
+        } else {
+            hits = postRepository.searchRankedAfter(query, after.score(), after.id(), limit + 1).stream()
+                    .map(hit -> new InvertedIndex.ScoredPost(hit.getId(), hit.getRank()))
+                    .toList();
+        }
+
+        boolean hasNext = hits.size() > limit;
+        List<InvertedIndex.ScoredPost> page = hasNext ? hits.subList(0, limit) : hits;
+        String nextCursor = null;
+        if (hasNext) {
+            InvertedIndex.ScoredPost last = page.get(page.size() - 1);
+            nextCursor = SearchCursor.of(last.score(), last.postId()).encode();
+        }
+
+        List<PostSummary> posts = findSummariesInOrder(page.stream().map(InvertedIndex.ScoredPost::postId).toList());
+        return CursorPage.<PostResponse>builder()
+                .content(mapSummariesToPostResponses(posts, username))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(limit)
+                .build();
+    }
+
+    private int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    // Rows are fetched with one extra element so hasNext is known without a COUNT query
+    private CursorPage<PostResponse> toCursorPage(List<PostSummary> posts, int limit, String username) {
+        boolean hasNext = posts.size() > limit;
+        List<PostSummary> page = hasNext ? posts.subList(0, limit) : posts;
+
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummary last = page.get(page.size() - 1);
+            nextCursor = Cursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<PostResponse>builder()
+                .content(mapSummariesToPostResponses(page, username))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(limit)
+                .build();
     }
     
     public boolean deletePostById(Long id) {
+        Long ownerId = getPostOwnerId(id);
+        if (ownerId != null) {
+            userStatsRepository.adjust(ownerId, -1, 0, 0);
+        }
+        userStatsRepository.subtractCommentsOfPost(id);
+        userStatsRepository.subtractLikesOfPost(id);
+        int likesRemoved = postRepository.findLikesCountById(id).orElse(0);
+
+        // Bulk delete first: removing reply threads row by row can trip the parent foreign key
+        int commentsRemoved = commentService.deleteAllForPost(id);
         postRepository.deleteById(id);
+        adminStatsService.adjust(0, ownerId != null ? -1 : 0, -commentsRemoved, -likesRemoved);
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Type.DELETED, ownerId));
         return true;
     }
 
@@ -137,9 +303,28 @@ public class PostService {
         }
         
         existing.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(existing);
+        Post saved = postRepository.save(existing);
+        if (updatedPost.getTags() != null) {
+            saved = applyTags(saved, updatedPost.getTags());
+        }
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Type.UPDATED, saved.getUser().getId()));
+        return saved;
     }
     
+    // post_tags is written in bulk behind Hibernate's back, so the entity is flushed
+    // first and re-read afterwards to pick up its new tag collection
+    private Post applyTags(Post post, Set<Tag> requestedTags) {
+        List<String> names = requestedTags.stream()
+                .map(Tag::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        postRepository.flush();
+        tagService.replacePostTags(post.getId(), tagService.getOrCreateTags(names));
+        entityManager.refresh(post);
+        return post;
+    }
+
     public PostResponse mapToPostResponse(Post post, String currentUsername) {
         boolean isLiked = false;
 
@@ -147,6 +332,101 @@ public class PostService {
             isLiked = likeService.isPostLikedByUser(post.getId(), currentUsername);
         }
 
+        return mapToPostResponse(post, isLiked);
+    }
+
+    /**
+     * Maps a whole page at once: the viewer is resolved once and their likes for
+     * every post on the page are fetched in a single query.
+     */
+    public List<PostResponse> mapToPostResponses(List<Post> posts, String currentUsername) {
+        List<Long> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+        Set<Long> likedPostIds = likeService.getLikedPostIds(postIds, currentUsername);
+
+        return posts.stream()
+                .map(post -> mapToPostResponse(post, likedPostIds.contains(post.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public List<PostResponse> mapSummariesToPostResponses(List<PostSummary> posts, String currentUsername) {
+        List<Long> postIds = posts.stream().map(PostSummary::getId).collect(Collectors.toList());
+        Set<Long> likedPostIds = likeService.getLikedPostIds(postIds, currentUsername);
+
+        return posts.stream()
+                .map(post -> mapSummaryToPostResponse(post, likedPostIds.contains(post.getId())))
+                .collect(Collectors.toList());
+    }
+
+    // Loads summaries for ids ranked elsewhere, preserving the given order
+    private List<PostSummary> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSummary> byId = postRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Page<PostResponse> mapSummaryPage(Page<PostSummary> posts, String currentUsername) {
+        return new PageImpl<>(mapSummariesToPostResponses(posts.getContent(), currentUsername),
+                posts.getPageable(), posts.getTotalElements());
+    }
+
+    private PostFeedCache.CachedPage toCachedPage(Page<PostSummary> posts) {
+        List<PostResponse> content = posts.getContent().stream()
+                .map(post -> mapSummaryToPostResponse(post, false))
+                .collect(Collectors.toList());
+        return new PostFeedCache.CachedPage(List.copyOf(content), posts.getTotalElements());
+    }
+
+    // Cached responses are shared, so liked posts are copied rather than modified
+    private Page<PostResponse> withViewerLikes(PostFeedCache.CachedPage posts, Pageable pageable, String currentUsername) {
+        List<Long> postIds = posts.content().stream().map(PostResponse::getId).collect(Collectors.toList());
+        Set<Long> likedPostIds = likeService.getLikedPostIds(postIds, currentUsername);
+
+        List<PostResponse> content = posts.content().stream()
+                .map(post -> likedPostIds.contains(post.getId()) ? post.toBuilder().isLiked(true).build() : post)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, posts.totalElements());
+    }
+
+    private PostResponse mapSummaryToPostResponse(PostSummary post, boolean isLiked) {
+        return PostResponse.builder()
+                .id(post.getId())
+                .postTitle(post.getPostTitle())
+                .postContent(post.getPostContent())
+                .image(post.getImage())
+                .likesCount(post.getLikesCount())
+                .commentsCount(post.getCommentsCount())
+                .isLiked(isLiked)
+                .tags(parseTags(post.getTagsJson()))
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .user(PostResponse.UserResponse.builder()
+                        .id(post.getUserId())
+                        .userName(post.getUserName())
+                        .firstName(post.getFirstName())
+                        .lastName(post.getLastName())
+                        .avatarUrl(post.getAvatarUrl())
+                        .build())
+                .build();
+    }
+
+    private List<TagResponse> parseTags(String tagsJson) {
+        if (tagsJson == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(tagsJson, TAG_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed tag aggregate", e);
+        }
+    }
+
+    private PostResponse mapToPostResponse(Post post, boolean isLiked) {
         List<TagResponse> tagResponses = post.getTags() != null ?
                 post.getTags().stream()
                         .map(tag -> TagResponse.builder()
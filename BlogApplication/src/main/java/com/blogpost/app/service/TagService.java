@@ -1,24 +1,124 @@
 package com.blogpost.app.service;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.blogpost.app.dto.TagResponse;
 import com.blogpost.app.entity.Tag;
+import com.blogpost.app.event.PostChangedEvent;
+import com.blogpost.app.repository.TagCount;
 import com.blogpost.app.repository.TagRepository;
 
 @Service
 public class TagService {
 
+    private static final Pattern NON_SLUG_CHARS = Pattern.compile("[^a-z0-9\\s-]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern REPEATED_DASHES = Pattern.compile("-+");
+
+    private static final String INSERT_TAG_SQL =
+            "INSERT INTO tags (name, slug, created_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_POST_TAG_SQL =
+            "INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String DELETE_POST_TAGS_SQL = "DELETE FROM post_tags WHERE post_id = ?";
+
     @Autowired
     private TagRepository tagRepository;
 
-    public List<Tag> getAllTags() {
-        return tagRepository.findAllWithPostCount();
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record CachedTags(long version, List<TagResponse> byName, List<TagResponse> byPostsCount) {
+    }
+
+    // Version of the tag list (names and post counts), bumped after every committed
+    // tagging change. Seeded from the clock so ETags handed out before a restart
+    // never match afterwards.
+    private final AtomicLong tagsVersion = new AtomicLong(System.currentTimeMillis());
+    private volatile CachedTags cachedTags;
+
+    public long getTagsVersion() {
+        return tagsVersion.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!event.type().isEngagement()) {
+            tagsVersion.incrementAndGet();
+        }
+    }
+
+    /** All tags with their post counts, ordered by name. */
+    public List<TagResponse> getAllTags() {
+        return currentTags().byName();
+    }
+
+    /** The most used tags, for the tag cloud. */
+    public List<TagResponse> getTopTags(int limit) {
+        List<TagResponse> tags = currentTags().byPostsCount();
+        return tags.subList(0, Math.min(Math.max(limit, 0), tags.size()));
+    }
+
+    public long getPostsCount(Long tagId) {
+        return tagRepository.countPostsByTagId(tagId);
+    }
+
+    private CachedTags currentTags() {
+        long version = tagsVersion.get();
+        CachedTags cached = cachedTags;
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        List<TagResponse> byName = tagRepository.findAllWithPostCount().stream()
+                .map(this::toResponse)
+                .toList();
+        List<TagResponse> byPostsCount = byName.stream()
+                .sorted(Comparator.comparingInt(TagResponse::getPostsCount).reversed())
+                .toList();
+        cached = new CachedTags(version, byName, byPostsCount);
+        cachedTags = cached;
+        return cached;
+    }
+
+    private TagResponse toResponse(TagCount tag) {
+        return TagResponse.builder()
+                .id(tag.getId())
+                .name(tag.getName())
+                .slug(tag.getSlug())
+                .postsCount((int) tag.getPostsCount())
+                .build();
+    }
+
+    // Bumping only once the write is visible keeps a concurrent reader from caching
+    // the pre-commit list under the new version
+    private void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tagsVersion.incrementAndGet();
+                }
+            });
+        } else {
+            tagsVersion.incrementAndGet();
+        }
     }
 
     public Optional<Tag> getTagBySlug(String slug) {
@@ -41,40 +141,72 @@ public class TagService {
                 .name(name)
                 .slug(slug)
                 .build();
-        return tagRepository.save(tag);
+        Tag saved = tagRepository.save(tag);
+        invalidateAfterCommit();
+        return saved;
     }
 
+    /**
+     * Resolves tag names to tags in a constant number of statements: one lookup of
+     * the existing slugs, one batched insert of the missing tags (racing creators
+     * are absorbed by ON CONFLICT) and one lookup of the inserted rows.
+     */
     @Transactional
-    public List<Tag> getOrCreateTags(List<String> tagNames) {
-        return tagNames.stream()
-                .map(String::trim)
-                .filter(name -> !name.isEmpty())
-                .map(this::getOrCreateTag)
-                .collect(Collectors.toList());
+    public List<Tag> getOrCreateTags(Collection<String> tagNames) {
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        for (String tagName : tagNames) {
+            String name = tagName != null ? tagName.trim() : "";
+            String slug = generateSlug(name);
+            if (!slug.isEmpty()) {
+                namesBySlug.putIfAbsent(slug, name);
+            }
+        }
+        if (namesBySlug.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Tag> tagsBySlug = new LinkedHashMap<>();
+        tagRepository.findBySlugIn(namesBySlug.keySet()).forEach(tag -> tagsBySlug.put(tag.getSlug(), tag));
+
+        List<String> missing = namesBySlug.keySet().stream()
+                .filter(slug -> !tagsBySlug.containsKey(slug))
+                .toList();
+        if (!missing.isEmpty()) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            List<Object[]> rows = new ArrayList<>(missing.size());
+            missing.forEach(slug -> rows.add(new Object[] { namesBySlug.get(slug), slug, now }));
+            jdbcTemplate.batchUpdate(INSERT_TAG_SQL, rows);
+            tagRepository.findBySlugIn(missing).forEach(tag -> tagsBySlug.put(tag.getSlug(), tag));
+            invalidateAfterCommit();
+        }
+
+        return namesBySlug.keySet().stream()
+                .map(tagsBySlug::get)
+                .filter(tag -> tag != null)
+                .toList();
     }
 
-    private Tag getOrCreateTag(String name) {
-        String slug = generateSlug(name);
-        return tagRepository.findBySlug(slug)
-                .orElseGet(() -> {
-                    Tag tag = Tag.builder()
-                            .name(name)
-                            .slug(slug)
-                            .build();
-                    return tagRepository.save(tag);
-                });
+    /** Replaces a post's tags with one delete and one batched insert into post_tags. */
+    @Transactional
+    public void replacePostTags(Long postId, Collection<Tag> tags) {
+        jdbcTemplate.update(DELETE_POST_TAGS_SQL, postId);
+        if (!tags.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(tags.size());
+            tags.forEach(tag -> rows.add(new Object[] { postId, tag.getId() }));
+            jdbcTemplate.batchUpdate(INSERT_POST_TAG_SQL, rows);
+        }
+        invalidateAfterCommit();
     }
 
     @Transactional
     public void deleteTag(Long id) {
         tagRepository.deleteById(id);
+        invalidateAfterCommit();
     }
 
     private String generateSlug(String name) {
-        return name.toLowerCase()
-                .trim()
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .replaceAll("\\s+", "-")
-                .replaceAll("-+", "-");
+        String slug = NON_SLUG_CHARS.matcher(name.toLowerCase().trim()).replaceAll("");
+        slug = WHITESPACE.matcher(slug).replaceAll("-");
+        return REPEATED_DASHES.matcher(slug).replaceAll("-");
     }
 }
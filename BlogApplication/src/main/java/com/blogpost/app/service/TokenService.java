@@ -3,17 +3,17 @@ package com.blogpost.app.service;
 import com.blogpost.app.entity.User;
 import com.blogpost.app.repository.UserRepository;
 import com.blogpost.app.security.JwtUtils;
+import com.blogpost.app.security.PrincipalCache;
+import com.blogpost.app.security.TokenRevocationStore;
+import com.blogpost.app.security.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TokenService {
@@ -26,8 +26,11 @@ public class TokenService {
     @Autowired
     private JwtUtils jwtUtils;
 
-    // In-memory blacklist for invalidated tokens (in production, use Redis)
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
 
     @Transactional
     public Map<String, String> generateTokens(User user) {
@@ -82,6 +85,7 @@ public class TokenService {
         user.setTokenVersion(user.getTokenVersion() + 1);
         user.setRefreshToken(null);
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
 
         logger.info("All tokens revoked for user: {}", user.getUserName());
     }
@@ -100,25 +104,14 @@ public class TokenService {
         logger.info("User {} logged out successfully", user.getUserName());
     }
 
+    // Only tokens that still verify need blacklisting; the rest are already rejected
     public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
-    }
-
-    public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+        jwtUtils.verify(token).ifPresent(verified ->
+                tokenRevocationStore.revoke(token, verified.expiration().getTime()));
     }
 
-    // Clean up expired tokens from blacklist every hour
-    @Scheduled(fixedDelay = 3600000) // 1 hour
-    public void cleanupBlacklist() {
-        blacklistedTokens.removeIf(token -> {
-            try {
-                return jwtUtils.isTokenExpired(token);
-            } catch (Exception e) {
-                return true; // Remove invalid tokens
-            }
-        });
-        logger.debug("Blacklist cleanup completed. Current size: {}", blacklistedTokens.size());
+    public boolean isTokenBlacklisted(String token, VerifiedToken verified) {
+        return tokenRevocationStore.isRevoked(token, verified.expiration().getTime());
     }
 
     @Transactional
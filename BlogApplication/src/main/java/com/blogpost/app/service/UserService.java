@@ -6,7 +6,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.blogpost.app.entity.User;
 import com.blogpost.app.exception.ResourceNotFoundException;
+import com.blogpost.app.likes.LikeIndex;
+import com.blogpost.app.repository.UserProfileView;
 import com.blogpost.app.repository.UserRepository;
+import com.blogpost.app.repository.UserStatsRepository;
+import com.blogpost.app.security.PrincipalCache;
 
 import java.util.Optional;
 
@@ -17,8 +21,29 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LikeIndex likeIndex;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PostFeedCache postFeedCache;
+
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userStatsRepository.create(saved.getId());
+        adminStatsService.adjust(1, 0, 0, 0);
+        return saved;
     }
 
     public User getUserById(Long id) {
@@ -26,6 +51,12 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
     }
 
+    /** Profile fields and activity counters in one query. */
+    public UserProfileView getUserProfile(Long id) {
+        return userStatsRepository.findProfileById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+    }
+
     public Optional<User> findUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -35,6 +66,11 @@ public class UserService {
             throw new ResourceNotFoundException("User", "id", id);
         }
         userRepository.deleteById(id);
+        userStatsRepository.deleteById(id);
+        adminStatsService.adjust(-1, 0, 0, 0);
+        likeIndex.removeUser(id);
+        likeWriteBuffer.removeUser(id);
+        principalCache.invalidate(id);
         return true;
     }
 
@@ -64,7 +100,11 @@ public class UserService {
             existing.setAvatarUrl(user.getAvatarUrl());
         }
 
-        return userRepository.save(existing);
+        User saved = userRepository.save(existing);
+        principalCache.invalidate(id);
+        // Cached feed pages embed the author's name and avatar
+        postFeedCache.invalidateAuthor(id);
+        return saved;
     }
 
     public boolean existsByUserName(String userName) {
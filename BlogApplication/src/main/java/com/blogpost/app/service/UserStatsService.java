@@ -0,0 +1,200 @@
+package com.blogpost.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blogpost.app.dto.CursorPage;
+import com.blogpost.app.dto.UserProfileResponse;
+import com.blogpost.app.repository.UserStatsRepository;
+
+/**
+ * Backfills and repairs the user_stats read model, and serves the admin user
+ * listing from it. The write paths keep it current; the backfill recounts users
+ * in id-ordered batches, each in its own short transaction, to create missing
+ * rows and fix drift. The listing joins the rows to users and pages by keyset
+ * over indexed columns, so neither an OFFSET nor a COUNT(*) scales with the
+ * number of users.
+ *
+ * As in PostCounterService, a batch's rows are locked before they are counted:
+ * a write that has not reached its user_stats adjustment yet waits and applies
+ * it on top of the recount, while one that already holds the row commits
+ * before the counts are taken. Missing rows are inserted first so they are
+ * locked too.
+ */
+@Service
+public class UserStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsService.class);
+
+    // Whitelisted orderings for the admin listing, all descending. Each one sorts on
+    // an indexed key with the user id as tiebreaker, so a page is an index range scan.
+    private static final Map<String, ProfileSort> SORTS = Map.of(
+            "createdat", new ProfileSort("u.created_at", "u.id", true),
+            "posts", new ProfileSort("s.posts_count", "s.user_id", false),
+            "comments", new ProfileSort("s.comments_count", "s.user_id", false),
+            "likes", new ProfileSort("s.likes_given_count", "s.user_id", false),
+            "activity", new ProfileSort("(s.posts_count + s.comments_count + s.likes_given_count)", "s.user_id", false),
+            "lastactive", new ProfileSort("s.last_active_at", "s.user_id", true));
+
+    private static final String PROFILE_COLUMNS =
+            "SELECT u.id, u.user_name, u.first_name, u.last_name, u.avatar_url, u.role, u.created_at, " +
+            "s.posts_count, s.comments_count, s.likes_given_count, ";
+    // Every user has a user_stats row (see UserStats), so this is an inner join
+    private static final String PROFILE_FROM = "FROM user_stats s JOIN users u ON u.id = s.user_id ";
+
+    private record ProfileSort(String key, String id, boolean timestamp) {
+    }
+
+    private record ProfileRow(UserProfileResponse profile, Object sortKey) {
+    }
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${users.stats.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${users.stats.backfill.on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    @Scheduled(cron = "${users.stats.backfill.cron:0 45 3 * * *}")
+    public void backfill() {
+        long afterId = 0;
+        int updated = 0;
+
+        Long upperId;
+        while ((upperId = userStatsRepository.findBatchUpperId(afterId, batchSize)) != null) {
+            long lower = afterId;
+            long upper = upperId;
+            updated += transactionTemplate.execute(status -> {
+                int inserted = userStatsRepository.insertMissing(lower, upper);
+                userStatsRepository.lockBatch(lower, upper);
+                return inserted + userStatsRepository.recompute(lower, upper);
+            });
+            afterId = upperId;
+        }
+
+        logger.info("User stats backfill completed. Rows written: {}", updated);
+    }
+
+    /**
+     * One page of users with their activity counters, continuing after the given
+     * cursor (null or empty for the first page). role matches exactly, query is a
+     * case-insensitive user name prefix, activeSince filters on last activity.
+     */
+    public CursorPage<UserProfileResponse> findUserProfiles(String role, String query, LocalDateTime activeSince,
+            String sort, String cursor, int size) {
+        String sortName = sort != null ? sort.toLowerCase(Locale.ROOT) : "createdat";
+        ProfileSort orderBy = SORTS.get(sortName);
+        if (orderBy == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+
+        StringBuilder where = new StringBuilder("WHERE " + orderBy.key() + " IS NOT NULL ");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (cursor != null && !cursor.isBlank()) {
+            where.append("AND (").append(orderBy.key()).append(", ").append(orderBy.id())
+                    .append(") < (:afterKey, :afterId) ");
+            decodeCursor(cursor, sortName, orderBy, params);
+        }
+        if (role != null && !role.isBlank()) {
+            where.append("AND u.role = :role ");
+            params.addValue("role", role.trim().toUpperCase(Locale.ROOT));
+        }
+        if (query != null && !query.isBlank()) {
+            where.append("AND LOWER(u.user_name) LIKE :query ");
+            params.addValue("query", escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (activeSince != null) {
+            where.append("AND s.last_active_at >= :activeSince ");
+            params.addValue("activeSince", activeSince);
+        }
+        params.addValue("limit", size + 1);
+
+        List<ProfileRow> rows = namedParameterJdbcTemplate.query(
+                PROFILE_COLUMNS + orderBy.key() + " AS sort_key " + PROFILE_FROM + where +
+                "ORDER BY " + orderBy.key() + " DESC, " + orderBy.id() + " DESC LIMIT :limit",
+                params, (rs, rowNum) -> new ProfileRow(UserProfileResponse.builder()
+                        .id(rs.getLong("id"))
+                        .userName(rs.getString("user_name"))
+                        .firstName(rs.getString("first_name"))
+                        .lastName(rs.getString("last_name"))
+                        .avatarUrl(rs.getString("avatar_url"))
+                        .role(rs.getString("role"))
+                        .createdAt(rs.getTimestamp("created_at") != null
+                                ? rs.getTimestamp("created_at").toLocalDateTime() : null)
+                        .postsCount(rs.getInt("posts_count"))
+                        .commentsCount(rs.getInt("comments_count"))
+                        .likesCount(rs.getInt("likes_given_count"))
+                        .build(),
+                        orderBy.timestamp() ? rs.getTimestamp("sort_key").toLocalDateTime() : rs.getLong("sort_key")));
+
+        boolean hasNext = rows.size() > size;
+        List<ProfileRow> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ProfileRow last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(sortName, last.sortKey(), last.profile().getId());
+        }
+        return CursorPage.<UserProfileResponse>builder()
+                .content(page.stream().map(ProfileRow::profile).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(page.size())
+                .build();
+    }
+
+    // The sort is part of the cursor, so a position taken under one ordering is rejected under another
+    private static String encodeCursor(String sortName, Object sortKey, Long id) {
+        String raw = sortName + "|" + sortKey + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void decodeCursor(String cursor, String sortName, ProfileSort sort, MapSqlParameterSource params) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(sortName)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            params.addValue("afterKey", sort.timestamp() ? LocalDateTime.parse(parts[1]) : Long.parseLong(parts[1]));
+            params.addValue("afterId", Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
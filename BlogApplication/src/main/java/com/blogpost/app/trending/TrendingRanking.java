@@ -0,0 +1,126 @@
+package com.blogpost.app.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded top-K ranking of posts by an exponentially decaying score.
+ *
+ * A point earned at time t is worth exp(-lambda * (now - t)) points at time now.
+ * Because every score decays by the same factor, scores are stored in units of a
+ * fixed reference time ("epoch"): a point earned at t is recorded as
+ * exp(lambda * (t - epoch)). The ordering then never changes as time passes, so
+ * nothing has to be re-sorted; {@link #rebase} only moves the epoch forward to
+ * keep the numbers in range and drops posts whose score has decayed to nothing.
+ *
+ * Scores live in a map for O(1) lookup and in a sorted set for ordered reads and
+ * eviction of the lowest entry once the ranking is full. Not thread safe.
+ */
+public class TrendingRanking {
+
+    private record Entry(long postId, double score) {
+    }
+
+    private static final Comparator<Entry> BY_SCORE_DESC = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::postId).reversed());
+
+    private final double lambda;
+    private final int capacity;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranked = new TreeSet<>(BY_SCORE_DESC);
+    private long epochMillis;
+
+    public TrendingRanking(double halfLifeHours, int capacity, long epochMillis) {
+        this.lambda = Math.log(2) / (halfLifeHours * 3_600_000d);
+        this.capacity = capacity;
+        this.epochMillis = epochMillis;
+    }
+
+    /** Adds (or with a negative value, removes) points earned at the given time. */
+    public void add(long postId, double points, long atMillis) {
+        double delta = points * Math.exp(lambda * (atMillis - epochMillis));
+        Entry current = entries.get(postId);
+        double score = current != null ? current.score() + delta : delta;
+
+        if (current != null) {
+            ranked.remove(current);
+            entries.remove(postId);
+        }
+        if (score <= 0) {
+            return;
+        }
+        if (entries.size() >= capacity) {
+            Entry lowest = ranked.last();
+            if (lowest.score() >= score) {
+                return;
+            }
+            ranked.pollLast();
+            entries.remove(lowest.postId());
+        }
+        Entry entry = new Entry(postId, score);
+        entries.put(postId, entry);
+        ranked.add(entry);
+    }
+
+    public void remove(long postId) {
+        Entry entry = entries.remove(postId);
+        if (entry != null) {
+            ranked.remove(entry);
+        }
+    }
+
+    public List<Long> top(int offset, int limit) {
+        List<Long> postIds = new ArrayList<>(Math.min(limit, entries.size()));
+        Iterator<Entry> iterator = ranked.iterator();
+        for (int i = 0; iterator.hasNext() && postIds.size() < limit; i++) {
+            Entry entry = iterator.next();
+            if (i >= offset) {
+                postIds.add(entry.postId());
+            }
+        }
+        return postIds;
+    }
+
+    /** Current (decayed) score of every post, as of the given time. */
+    public Map<Long, Double> snapshot(long atMillis) {
+        double factor = Math.exp(-lambda * (atMillis - epochMillis));
+        Map<Long, Double> scores = new HashMap<>(entries.size() * 2);
+        entries.forEach((postId, entry) -> scores.put(postId, entry.score() * factor));
+        return scores;
+    }
+
+    /**
+     * Moves the reference time to newEpochMillis, rescaling every score, and drops
+     * posts whose decayed score fell below minScore. Order is unaffected.
+     */
+    public int rebase(long newEpochMillis, double minScore) {
+        double factor = Math.exp(-lambda * (newEpochMillis - epochMillis));
+        List<Entry> rescaled = new ArrayList<>(entries.size());
+        for (Entry entry : ranked) {
+            double score = entry.score() * factor;
+            if (score >= minScore) {
+                rescaled.add(new Entry(entry.postId(), score));
+            }
+        }
+        int dropped = entries.size() - rescaled.size();
+
+        entries.clear();
+        ranked.clear();
+        for (Entry entry : rescaled) {
+            entries.put(entry.postId(), entry);
+            ranked.add(entry);
+        }
+        epochMillis = newEpochMillis;
+        return dropped;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,186 @@
+package com.blogpost.app.trending;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blogpost.app.entity.TrendingScore;
+import com.blogpost.app.event.PostChangedEvent;
+import com.blogpost.app.repository.PostEngagement;
+import com.blogpost.app.repository.PostRepository;
+import com.blogpost.app.repository.TrendingScoreRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Maintains the trending ranking behind GET /Posts/trending. A new post, each
+ * like and each comment add points that decay with the configured half-life,
+ * so the ranking favours recent engagement on recent posts.
+ *
+ * The ranking is updated incrementally from committed {@link PostChangedEvent}s,
+ * snapshotted to trending_scores periodically and on shutdown, and restored from
+ * the snapshot at startup (or seeded from recent posts when there is none).
+ */
+@Component
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+    private static final int PERSIST_BATCH_SIZE = 500;
+    private static final String UPSERT_SQL =
+            "INSERT INTO trending_scores (post_id, score, scored_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (post_id) DO UPDATE SET score = EXCLUDED.score, scored_at = EXCLUDED.scored_at";
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TrendingScoreRepository trendingScoreRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${posts.trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${posts.trending.capacity:1000}")
+    private int capacity;
+
+    @Value("${posts.trending.post-weight:1}")
+    private double postWeight;
+
+    @Value("${posts.trending.like-weight:1}")
+    private double likeWeight;
+
+    @Value("${posts.trending.comment-weight:2}")
+    private double commentWeight;
+
+    @Value("${posts.trending.min-score:0.01}")
+    private double minScore;
+
+    private TrendingRanking ranking;
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        ranking = new TrendingRanking(halfLifeHours, capacity, System.currentTimeMillis());
+    }
+
+    public List<Long> getTrendingPostIds(int page, int size) {
+        synchronized (ranking) {
+            return ranking.top(page * size, size);
+        }
+    }
+
+    public int size() {
+        synchronized (ranking) {
+            return ranking.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        List<TrendingScore> snapshot = trendingScoreRepository.findAll();
+
+        synchronized (ranking) {
+            if (!snapshot.isEmpty()) {
+                for (TrendingScore score : snapshot) {
+                    ranking.add(score.getPostId(), score.getScore(), toMillis(score.getScoredAt()));
+                }
+            } else {
+                // No snapshot yet: credit the engagement of recent posts to their creation time
+                LocalDateTime since = LocalDateTime.now().minusHours((long) Math.ceil(halfLifeHours * 7));
+                for (PostEngagement post : postRepository.findEngagementSince(since, capacity)) {
+                    double points = postWeight + likeWeight * post.getLikesCount()
+                            + commentWeight * post.getCommentsCount();
+                    ranking.add(post.getId(), points, toMillis(post.getCreatedAt()));
+                }
+            }
+        }
+
+        ready = true;
+        logger.info("Trending ranking loaded: {} posts ({}) in {} ms", size(),
+                snapshot.isEmpty() ? "seeded from posts" : "from snapshot", System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        long now = System.currentTimeMillis();
+        synchronized (ranking) {
+            switch (event.type()) {
+                case CREATED -> ranking.add(event.postId(), postWeight, now);
+                case LIKED -> ranking.add(event.postId(), likeWeight, now);
+                case UNLIKED -> ranking.add(event.postId(), -likeWeight, now);
+                case COMMENTED -> ranking.add(event.postId(), commentWeight, now);
+                case COMMENT_DELETED -> ranking.add(event.postId(), -commentWeight * event.count(), now);
+                case DELETED -> ranking.remove(event.postId());
+                case UPDATED -> { }
+            }
+        }
+    }
+
+    // Keeps stored scores in range and drops posts that have decayed out of contention
+    @Scheduled(fixedDelayString = "${posts.trending.rebase-interval-ms:600000}")
+    public void rebase() {
+        int dropped;
+        synchronized (ranking) {
+            dropped = ranking.rebase(System.currentTimeMillis(), minScore);
+        }
+        if (dropped > 0) {
+            logger.debug("Trending rebase dropped {} posts", dropped);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${posts.trending.persist-interval-ms:300000}",
+               initialDelayString = "${posts.trending.persist-interval-ms:300000}")
+    public void persist() {
+        if (!ready) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<Long, Double> scores;
+        synchronized (ranking) {
+            scores = ranking.snapshot(now);
+        }
+        Timestamp scoredAt = new Timestamp(now);
+
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        scores.forEach((postId, score) -> rows.add(new Object[] { postId, score, scoredAt }));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows.size(); i += PERSIST_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows.subList(i, Math.min(i + PERSIST_BATCH_SIZE, rows.size())));
+            }
+            trendingScoreRepository.deleteScoredBefore(scoredAt.toLocalDateTime());
+        });
+    }
+
+    @PreDestroy
+    void persistOnShutdown() {
+        persist();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,45 @@
+package com.blogpost.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for feeds ordered by (createdAt DESC, id DESC).
+ * Clients receive it base64url-encoded and pass it back unchanged.
+ */
+public record Cursor(LocalDateTime createdAt, Long id) {
+
+    // Sorts after every real row, so the first page is just a seek from here
+    private static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static Cursor start() {
+        return START;
+    }
+
+    public static Cursor of(LocalDateTime createdAt, Long id) {
+        return new Cursor(createdAt, id);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a client supplied cursor; a null or blank value means the first page.
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
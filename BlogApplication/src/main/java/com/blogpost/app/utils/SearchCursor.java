@@ -0,0 +1,48 @@
+package com.blogpost.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for search results ordered by (score DESC, id DESC).
+ * The score's exact float bits are encoded so the next page resumes at the
+ * same rank. Clients receive it base64url-encoded and pass it back unchanged.
+ */
+public record SearchCursor(float score, long id) {
+
+    // Sorts before every real hit, so the first page is just a seek from here
+    private static final SearchCursor START = new SearchCursor(Float.POSITIVE_INFINITY, Long.MAX_VALUE);
+
+    public static SearchCursor start() {
+        return START;
+    }
+
+    public static SearchCursor of(float score, long id) {
+        return new SearchCursor(score, id);
+    }
+
+    public String encode() {
+        String raw = Integer.toHexString(Float.floatToIntBits(score)) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a client supplied cursor; a null or blank value means the first page.
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            float score = Float.intBitsToFloat(Integer.parseUnsignedInt(raw.substring(0, sep), 16));
+            if (Float.isNaN(score)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(score, Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization).
+-- Every statement must be idempotent: this script runs on each startup.
+
+-- Full-text search on posts: title weighted above content. A stored generated
+-- column keeps the vector current on every insert/update without triggers.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(post_title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(post_content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_post_search_vector ON posts USING GIN (search_vector);
+
+-- Comment subtrees are read as a byte-ordered range over the materialized path
+CREATE INDEX IF NOT EXISTS idx_comment_path ON comments (path COLLATE "C");
+
+-- Admin user search: case-insensitive user name prefix
+CREATE INDEX IF NOT EXISTS idx_user_username_lower ON users (LOWER(user_name) text_pattern_ops);
+
+-- Admin listing by total activity, keyset paged with user_id as the tiebreaker
+CREATE INDEX IF NOT EXISTS idx_user_stats_activity_user
+    ON user_stats ((posts_count + comments_count + likes_given_count), user_id);
+
+-- Superseded by the (sort column, id) indexes declared on the entities
+DROP INDEX IF EXISTS idx_user_stats_last_active;
+DROP INDEX IF EXISTS idx_user_stats_posts;
+DROP INDEX IF EXISTS idx_user_created_at;
+
+-- Rows created before sign-up counted as activity; the last-active keyset skips NULLs
+UPDATE user_stats s SET last_active_at = u.created_at
+    FROM users u WHERE u.id = s.user_id AND s.last_active_at IS NULL;
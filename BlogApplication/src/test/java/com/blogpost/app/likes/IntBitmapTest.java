@@ -0,0 +1,98 @@
+package com.blogpost.app.likes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class IntBitmapTest {
+
+    @Test
+    void addAndRemoveReportWhetherTheSetChanged() {
+        IntBitmap bitmap = new IntBitmap();
+
+        assertThat(bitmap.add(7)).isTrue();
+        assertThat(bitmap.add(7)).isFalse();
+        assertThat(bitmap.remove(8)).isFalse();
+        assertThat(bitmap.remove(7)).isTrue();
+        assertThat(bitmap.remove(7)).isFalse();
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void keepsValuesOfDifferentChunksApart() {
+        IntBitmap bitmap = new IntBitmap();
+        // Same low 16 bits, different high bits
+        bitmap.add(5);
+        bitmap.add((1 << 16) + 5);
+        bitmap.add(Integer.MAX_VALUE);
+
+        assertThat(bitmap.contains(5)).isTrue();
+        assertThat(bitmap.contains((1 << 16) + 5)).isTrue();
+        assertThat(bitmap.contains((2 << 16) + 5)).isFalse();
+        assertThat(bitmap.contains(Integer.MAX_VALUE)).isTrue();
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+
+        bitmap.remove(5);
+        assertThat(bitmap.contains((1 << 16) + 5)).isTrue();
+        assertThat(bitmap.cardinality()).isEqualTo(2);
+    }
+
+    @Test
+    void switchesToABitmapPastTheArrayLimitAndBack() {
+        IntBitmap bitmap = new IntBitmap();
+        for (int value = 0; value < 4096; value++) {
+            bitmap.add(value * 2);
+        }
+
+        // A bitmap container has a fixed size, an array grows by two bytes per value
+        bitmap.add(1);
+        long bitmapSize = bitmap.sizeInBytes();
+        bitmap.add(3);
+        assertThat(bitmap.sizeInBytes()).isEqualTo(bitmapSize);
+        assertThat(bitmap.cardinality()).isEqualTo(4098);
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(8190)).isTrue();
+        assertThat(bitmap.contains(5)).isFalse();
+
+        bitmap.remove(1);
+        bitmap.remove(3);
+        long arraySize = bitmap.sizeInBytes();
+        bitmap.remove(0);
+        assertThat(bitmap.sizeInBytes()).isEqualTo(arraySize - 2);
+        assertThat(bitmap.cardinality()).isEqualTo(4095);
+        for (int value = 1; value < 4096; value++) {
+            assertThat(bitmap.contains(value * 2)).isTrue();
+        }
+        assertThat(bitmap.contains(0)).isFalse();
+    }
+
+    @Test
+    void matchesAHashSetUnderRandomAddsAndRemoves() {
+        IntBitmap bitmap = new IntBitmap();
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        // Three chunks, dense enough to cross the array limit in both directions
+        for (int i = 0; i < 60_000; i++) {
+            int value = (random.nextInt(3) << 16) | random.nextInt(10_000);
+            boolean add = i < 30_000 ? random.nextInt(4) > 0 : random.nextInt(4) == 0;
+            if (add) {
+                assertThat(bitmap.add(value)).isEqualTo(expected.add(value));
+            } else {
+                assertThat(bitmap.remove(value)).isEqualTo(expected.remove(value));
+            }
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        for (int chunk = 0; chunk < 3; chunk++) {
+            for (int low = 0; low < 10_000; low++) {
+                int value = (chunk << 16) | low;
+                assertThat(bitmap.contains(value)).isEqualTo(expected.contains(value));
+            }
+        }
+    }
+}
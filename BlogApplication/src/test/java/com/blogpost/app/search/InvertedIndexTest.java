@@ -0,0 +1,185 @@
+package com.blogpost.app.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void titleMatchesOutrankContentMatches() {
+        index.put(1, "Gardening notes", "A few words about compost");
+        index.put(2, "Compost", "Notes from the allotment");
+
+        assertThat(index.search("compost ", 0, 10).postIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void everyTokenMustMatch() {
+        index.put(1, "Java streams", "Collectors and grouping");
+        index.put(2, "Java records", "Compact constructors");
+        index.put(3, "Kotlin flows", "Streams of values");
+
+        assertThat(index.search("java streams ", 0, 10).postIds()).containsExactly(1L);
+        assertThat(index.search("java ", 0, 10).totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void lastTokenIsAPrefixUnlessTheQueryEndsWithWhitespace() {
+        index.put(1, "Postgres indexing", "");
+        index.put(2, "Post mortem", "");
+
+        assertThat(index.search("post", 0, 10).postIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("post ", 0, 10).postIds()).containsExactly(2L);
+    }
+
+    @Test
+    void stopWordsAndCaseAreIgnored() {
+        index.put(1, "The Art of Caching", "");
+
+        assertThat(index.search("THE ART ", 0, 10).postIds()).containsExactly(1L);
+        assertThat(index.search("the of ", 0, 10).postIds()).isEmpty();
+    }
+
+    @Test
+    void equalScoresRankNewerPostsFirst() {
+        index.put(5, "Release notes", "");
+        index.put(9, "Release notes", "");
+        index.put(7, "Release notes", "");
+
+        assertThat(index.search("release ", 0, 10).postIds()).containsExactly(9L, 7L, 5L);
+    }
+
+    @Test
+    void pagesThroughHitsWithTheFullTotal() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Weekly digest", "");
+        }
+
+        InvertedIndex.SearchHits page = index.search("digest ", 2, 2);
+
+        assertThat(page.postIds()).containsExactly(3L, 2L);
+        assertThat(page.totalHits()).isEqualTo(5);
+    }
+
+    @Test
+    void keysetPagesFollowTheRankedOrder() {
+        index.put(1, "Caching", "caching caching");
+        index.put(2, "Caching", "");
+        index.put(3, "Notes", "caching");
+        index.put(4, "Caching", "");
+
+        List<InvertedIndex.ScoredPost> first = index.searchAfter("caching ", Float.POSITIVE_INFINITY, Long.MAX_VALUE, 2);
+        InvertedIndex.ScoredPost last = first.get(first.size() - 1);
+        List<InvertedIndex.ScoredPost> second = index.searchAfter("caching ", last.score(), last.postId(), 2);
+
+        assertThat(first).extracting(InvertedIndex.ScoredPost::postId).containsExactly(1L, 4L);
+        assertThat(second).extracting(InvertedIndex.ScoredPost::postId).containsExactly(2L, 3L);
+        assertThat(index.search("caching ", 0, 10).postIds()).containsExactly(1L, 4L, 2L, 3L);
+    }
+
+    @Test
+    void anUpdateReplacesThePreviousText() {
+        index.put(1, "Draft title", "placeholder");
+        index.put(1, "Final title", "published text");
+
+        assertThat(index.search("draft ", 0, 10).postIds()).isEmpty();
+        assertThat(index.search("placeholder ", 0, 10).postIds()).isEmpty();
+        assertThat(index.search("final ", 0, 10).postIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removedPostsAreNotFound() {
+        index.put(1, "Spring security", "");
+        index.put(2, "Spring data", "");
+        index.remove(1);
+        index.remove(42);
+
+        assertThat(index.search("spring ", 0, 10).postIds()).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deletesCompactAwayTermsOfRemovedPosts() {
+        int posts = 2000;
+        for (long id = 0; id < posts; id++) {
+            index.put(id, null, "word" + id);
+        }
+        for (long id = 0; id < 1024; id++) {
+            index.remove(id);
+        }
+
+        // The 1024th delete reaches the threshold, dropping the removed posts' terms
+        assertThat(index.termCount()).isEqualTo(posts - 1024);
+        assertThat(index.search("word1500 ", 0, 10).postIds()).containsExactly(1500L);
+        assertThat(index.search("word10 ", 0, 10).postIds()).isEmpty();
+    }
+
+    @Test
+    void editsCompactLikeDeletes() {
+        int posts = 2000;
+        for (long id = 0; id < posts; id++) {
+            index.put(id, null, "word" + id);
+        }
+        for (long id = 0; id < 1024; id++) {
+            index.put(id, null, "edited" + id);
+        }
+
+        // Without compaction the old versions' terms would all still be indexed
+        assertThat(index.termCount()).isEqualTo(posts);
+        assertThat(index.size()).isEqualTo(posts);
+        assertThat(index.search("edited7 ", 0, 10).postIds()).containsExactly(7L);
+        assertThat(index.search("word7 ", 0, 10).postIds()).isEmpty();
+        assertThat(index.search("word1999 ", 0, 10).postIds()).containsExactly(1999L);
+    }
+
+    @Test
+    void removedPostsNoLongerCountTowardsDocumentFrequencies() {
+        index.put(1, "Caching", "");
+        index.put(2, "Caching", "");
+        index.put(3, "Caching", "");
+        index.put(4, "Indexing", "");
+        index.remove(1);
+        index.remove(2);
+
+        InvertedIndex fresh = new InvertedIndex();
+        fresh.put(3, "Caching", "");
+        fresh.put(4, "Indexing", "");
+
+        assertThat(index.searchAfter("caching ", Float.POSITIVE_INFINITY, Long.MAX_VALUE, 10))
+                .isEqualTo(fresh.searchAfter("caching ", Float.POSITIVE_INFINITY, Long.MAX_VALUE, 10));
+    }
+
+    @Test
+    void documentFrequenciesStayAccurateAcrossCompaction() {
+        for (long id = 0; id < 1024; id++) {
+            index.put(id, null, "filler");
+        }
+        index.put(2000, "Caching", "");
+        index.put(2001, "Caching", "");
+        index.put(2002, "Indexing", "");
+        for (long id = 0; id < 1024; id++) {
+            index.remove(id);
+        }
+        index.remove(2000);
+
+        InvertedIndex fresh = new InvertedIndex();
+        fresh.put(2001, "Caching", "");
+        fresh.put(2002, "Indexing", "");
+
+        assertThat(index.searchAfter("caching ", Float.POSITIVE_INFINITY, Long.MAX_VALUE, 10))
+                .isEqualTo(fresh.searchAfter("caching ", Float.POSITIVE_INFINITY, Long.MAX_VALUE, 10));
+        assertThat(index.search("fill", 0, 10).postIds()).isEmpty();
+    }
+
+    @Test
+    void tokenizeDropsShortTokensStopWordsAndDuplicates() {
+        assertThat(InvertedIndex.tokenize("A cache, the CACHE and x-ray!")).containsExactly("cache", "ray");
+        assertThat(InvertedIndex.tokenize("   ")).isEmpty();
+    }
+}
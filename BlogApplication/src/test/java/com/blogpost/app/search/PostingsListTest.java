@@ -0,0 +1,52 @@
+package com.blogpost.app.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PostingsListTest {
+
+    @Test
+    void readsBackWhatWasAdded() {
+        PostingsList postings = new PostingsList();
+        // Gaps and frequencies that need one, two and several varint bytes
+        postings.add(0, 1);
+        postings.add(1, 300);
+        postings.add(200, 2);
+        postings.add(1_000_000, 70_000);
+
+        assertThat(entries(postings)).containsExactly(
+                new int[] { 0, 1 }, new int[] { 1, 300 }, new int[] { 200, 2 }, new int[] { 1_000_000, 70_000 });
+        assertThat(postings.docFreq()).isEqualTo(4);
+    }
+
+    @Test
+    void remapRenumbersAndDropsDeletedDocs() {
+        PostingsList postings = new PostingsList();
+        postings.add(0, 3);
+        postings.add(2, 1);
+        postings.add(5, 4);
+
+        PostingsList remapped = postings.remap(new int[] { 0, -1, -1, -1, -1, 1 });
+
+        assertThat(entries(remapped)).containsExactly(new int[] { 0, 3 }, new int[] { 1, 4 });
+        assertThat(remapped.docFreq()).isEqualTo(2);
+    }
+
+    @Test
+    void remapReturnsNullWhenNothingSurvives() {
+        PostingsList postings = new PostingsList();
+        postings.add(1, 1);
+
+        assertThat(postings.remap(new int[] { 0, -1 })).isNull();
+    }
+
+    private static List<int[]> entries(PostingsList postings) {
+        List<int[]> entries = new ArrayList<>();
+        postings.forEach((doc, freq) -> entries.add(new int[] { doc, freq }));
+        return entries;
+    }
+}
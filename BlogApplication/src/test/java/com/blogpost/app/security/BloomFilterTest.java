@@ -0,0 +1,49 @@
+package com.blogpost.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        Random random = new Random(7);
+        long[][] keys = new long[10_000][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new long[] { random.nextLong(), random.nextLong() };
+            filter.add(keys[i][0], keys[i][1]);
+        }
+
+        for (long[] key : keys) {
+            assertThat(filter.mightContain(key[0], key[1])).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(random.nextLong(), random.nextLong());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertThat(filter.mightContain(1, 2)).isFalse();
+    }
+}
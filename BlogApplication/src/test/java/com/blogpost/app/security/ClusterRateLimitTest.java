@@ -0,0 +1,174 @@
+package com.blogpost.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs several {@link GcraRateLimiter} "nodes" in one JVM against an in-memory
+ * stand-in for the shared state table, on a simulated clock, so every run
+ * admits exactly the same requests.
+ */
+class ClusterRateLimitTest {
+
+    private static final String POLICY = "GENERAL";
+    private static final int LIMIT = 60;
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMicros(20_000));
+    private final InMemoryStateStore store = new InMemoryStateStore();
+
+    @Test
+    void unsyncedNodesEachAdmitTheFullLimit() {
+        SimulatedCluster cluster = new SimulatedCluster(3);
+
+        long admitted = cluster.run("client", 600, 5, 0);
+
+        // Every node grants its own burst plus one request per emission interval (599.8 s elapse)
+        assertThat(admitted).isEqualTo(3L * (LIMIT + 599));
+    }
+
+    @Test
+    void syncedNodesShareOneLimit() {
+        SimulatedCluster cluster = new SimulatedCluster(3);
+
+        long admitted = cluster.run("client", 600, 5, 1);
+
+        // One limit for the whole cluster, give or take what each node admits within one sync interval
+        long expected = LIMIT + 599;
+        long syncSlack = 3L * 5;
+        assertThat(admitted).isBetween(expected - syncSlack, expected + syncSlack);
+    }
+
+    @Test
+    void overshootBetweenSyncsIsRepaidAfterwards() {
+        SimulatedCluster cluster = new SimulatedCluster(3);
+
+        // All three nodes spend their local burst before hearing from each other
+        long burst = cluster.requestAll("client", LIMIT);
+        assertThat(burst).isEqualTo(3L * LIMIT);
+        cluster.syncAll();
+        // The nodes that synced first catch up with the later ones on the next round
+        cluster.syncAll();
+
+        // The shared TAT now sits two periods ahead: nobody admits anything until it is repaid
+        cluster.idle(119);
+        assertThat(cluster.requestAll("client", 1)).isZero();
+        cluster.idle(2);
+        assertThat(cluster.requestAll("client", 1)).isPositive();
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        SimulatedCluster cluster = new SimulatedCluster(2);
+
+        cluster.requestAll("busy", LIMIT);
+        cluster.syncAll();
+
+        assertThat(cluster.nodes.get(0).tryAcquire("busy").allowed()).isFalse();
+        assertThat(cluster.nodes.get(0).tryAcquire("quiet").allowed()).isTrue();
+        assertThat(store.tats).containsOnlyKeys(POLICY + ":busy");
+    }
+
+    @Test
+    void countsSurviveAFailedSync() {
+        SimulatedCluster cluster = new SimulatedCluster(2);
+        GcraRateLimiter node = cluster.nodes.get(0);
+        for (int i = 0; i < 10; i++) {
+            node.tryAcquire("client");
+        }
+
+        store.failing = true;
+        assertThatThrownBy(() -> node.syncWith(POLICY, store)).isInstanceOf(IllegalStateException.class);
+        store.failing = false;
+        node.syncWith(POLICY, store);
+
+        long interval = PERIOD.toNanos() / 1000 / LIMIT;
+        assertThat(store.tats.get(POLICY + ":client")).isEqualTo(clock.get() + 10 * interval);
+    }
+
+    /** N limiters sharing the simulated clock and store; nodes are always visited in the same order. */
+    private class SimulatedCluster {
+
+        final List<GcraRateLimiter> nodes = new ArrayList<>();
+
+        SimulatedCluster(int size) {
+            for (int i = 0; i < size; i++) {
+                nodes.add(new GcraRateLimiter(LIMIT, PERIOD, 1000, clock::get));
+            }
+        }
+
+        /**
+         * Sends requestsPerSecond requests per node each simulated second for the
+         * given duration, syncing every syncEverySeconds (0 disables syncing).
+         */
+        long run(String key, int seconds, int requestsPerSecond, int syncEverySeconds) {
+            long admitted = 0;
+            long step = TimeUnit.SECONDS.toMicros(1) / requestsPerSecond;
+            for (int second = 0; second < seconds; second++) {
+                for (int tick = 0; tick < requestsPerSecond; tick++) {
+                    admitted += requestAll(key, 1);
+                    clock.addAndGet(step);
+                }
+                if (syncEverySeconds > 0 && (second + 1) % syncEverySeconds == 0) {
+                    syncAll();
+                }
+            }
+            return admitted;
+        }
+
+        long requestAll(String key, int perNode) {
+            long admitted = 0;
+            for (GcraRateLimiter node : nodes) {
+                for (int i = 0; i < perNode; i++) {
+                    if (node.tryAcquire(key).allowed()) {
+                        admitted++;
+                    }
+                }
+            }
+            return admitted;
+        }
+
+        void idle(int seconds) {
+            for (int second = 0; second < seconds; second++) {
+                clock.addAndGet(TimeUnit.SECONDS.toMicros(1));
+                syncAll();
+            }
+        }
+
+        void syncAll() {
+            nodes.forEach(node -> node.syncWith(POLICY, store));
+        }
+    }
+
+    /** Same arithmetic as the upsert in PostgresRateLimitStateStore. */
+    private static class InMemoryStateStore implements RateLimitStateStore {
+
+        final Map<String, Long> tats = new HashMap<>();
+        boolean failing;
+
+        @Override
+        public Map<String, Long> advance(String policy, Map<String, Long> counts, long nowMicros,
+                long emissionIntervalMicros) {
+            if (failing) {
+                throw new IllegalStateException("connection refused");
+            }
+            Map<String, Long> result = new HashMap<>();
+            counts.forEach((key, count) -> {
+                long tat = tats.merge(policy + ":" + key, nowMicros + count * emissionIntervalMicros,
+                        (stored, fresh) -> Math.max(stored - nowMicros, 0) + fresh);
+                result.put(key, tat);
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.blogpost.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.DriverManager;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blogpost.app.security.RevocationChannel.Revocation;
+
+/**
+ * Runs the store's INSERT and pg_notify against a real PostgreSQL, set with
+ * TEST_POSTGRES_URL (plus TEST_POSTGRES_USER / TEST_POSTGRES_PASSWORD). Each run
+ * works in a schema of its own and drops it afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+class PostgresTokenRevocationStoreTest {
+
+    private static final long EXPIRES_AT = System.currentTimeMillis() + 3_600_000;
+
+    private final String url = System.getenv("TEST_POSTGRES_URL");
+    private final String user = System.getenv().getOrDefault("TEST_POSTGRES_USER", "postgres");
+    private final String password = System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "");
+    private final String schema = "revocation_test_" + System.nanoTime();
+
+    private final BlockingQueue<Revocation> received = new LinkedBlockingQueue<>();
+    private final Semaphore connected = new Semaphore(0);
+    private final TokenBlacklist tokenBlacklist = new TokenBlacklist();
+    private final PostgresTokenRevocationStore store = new PostgresTokenRevocationStore();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private RevocationChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        new JdbcTemplate(new DriverManagerDataSource(url, user, password))
+                .execute("CREATE SCHEMA " + schema);
+
+        Properties properties = new Properties();
+        properties.setProperty("user", user);
+        properties.setProperty("password", password);
+        properties.setProperty("currentSchema", schema);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, properties);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE revoked_tokens (token_digest varchar(32) PRIMARY KEY, " +
+                "expires_at_millis bigint NOT NULL)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        ReflectionTestUtils.setField(tokenBlacklist, "bucketSeconds", 60L);
+        ReflectionTestUtils.setField(tokenBlacklist, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(tokenBlacklist, "falsePositiveRate", 0.01);
+        tokenBlacklist.init();
+        ReflectionTestUtils.setField(store, "tokenBlacklist", tokenBlacklist);
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+
+        channel = new RevocationChannel(() -> DriverManager.getConnection(url, user, password),
+                received::add, connected::release, 50, 100);
+        channel.start();
+        assertThat(connected.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (channel != null) {
+            channel.close();
+        }
+        new JdbcTemplate(new DriverManagerDataSource(url, user, password))
+                .execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+    }
+
+    @Test
+    void announcesAndAppliesARevocationOnlyOnceCommitted() throws Exception {
+        String token = "header.payload." + schema;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.revoke(token, EXPIRES_AT);
+            try {
+                assertThat(received.poll(300, TimeUnit.MILLISECONDS)).isNull();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            assertThat(tokenBlacklist.contains(token, EXPIRES_AT)).isFalse();
+        });
+
+        Revocation expected = new Revocation(TokenBlacklist.Digest.of(token), EXPIRES_AT);
+        assertThat(received.poll(10, TimeUnit.SECONDS)).isEqualTo(expected);
+        assertThat(storedExpiries(expected)).containsExactly(EXPIRES_AT);
+        assertThat(tokenBlacklist.contains(token, EXPIRES_AT)).isTrue();
+    }
+
+    @Test
+    void aRolledBackRevocationLeavesNoTrace() throws Exception {
+        String token = "rolled.back." + schema;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.revoke(token, EXPIRES_AT);
+            status.setRollbackOnly();
+        });
+
+        assertThat(received.poll(1, TimeUnit.SECONDS)).isNull();
+        assertThat(storedExpiries(new Revocation(TokenBlacklist.Digest.of(token), EXPIRES_AT))).isEmpty();
+        assertThat(tokenBlacklist.contains(token, EXPIRES_AT)).isFalse();
+    }
+
+    @Test
+    void revokingTwiceKeepsOneRow() throws Exception {
+        String token = "twice." + schema;
+
+        store.revoke(token, EXPIRES_AT);
+        store.revoke(token, EXPIRES_AT);
+
+        assertThat(received.poll(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(received.poll(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(storedExpiries(new Revocation(TokenBlacklist.Digest.of(token), EXPIRES_AT)))
+                .containsExactly(EXPIRES_AT);
+    }
+
+    private List<Long> storedExpiries(Revocation revocation) {
+        return jdbcTemplate.queryForList("SELECT expires_at_millis FROM revoked_tokens WHERE token_digest = ?",
+                Long.class, revocation.digestHex());
+    }
+}
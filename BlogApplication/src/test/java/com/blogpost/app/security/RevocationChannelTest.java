@@ -0,0 +1,191 @@
+package com.blogpost.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import com.blogpost.app.security.RevocationChannel.Revocation;
+
+class RevocationChannelTest {
+
+    private final NotificationServer server = new NotificationServer();
+    private final BlockingQueue<Revocation> received = new LinkedBlockingQueue<>();
+    private final Semaphore connected = new Semaphore(0);
+    private final RevocationChannel channel = new RevocationChannel(server::connect, received::add,
+            connected::release, 50, 10);
+
+    @AfterEach
+    void closeChannel() {
+        channel.close();
+    }
+
+    @Test
+    void payloadRoundTrips() {
+        Revocation revocation = new Revocation(TokenBlacklist.Digest.of("header.payload.signature"), 1_700_000_000_000L);
+
+        assertThat(Revocation.fromPayload(revocation.toPayload())).isEqualTo(revocation);
+        assertThat(Revocation.parseDigest(revocation.digestHex())).isEqualTo(revocation.digest());
+    }
+
+    @Test
+    void rejectsMalformedPayloads() {
+        assertThatThrownBy(() -> Revocation.fromPayload("not-a-revocation"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Revocation.fromPayload("zz".repeat(16) + ":1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void deliversNotificationsPublishedOnTheChannel() throws Exception {
+        channel.start();
+        assertThat(connected.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+
+        Revocation revocation = new Revocation(TokenBlacklist.Digest.of("token-a"), 1_700_000_000_000L);
+        server.notify(RevocationChannel.CHANNEL, revocation.toPayload());
+        server.notify("other_channel", revocation.toPayload());
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(revocation);
+        assertThat(received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void skipsMalformedNotificationsAndKeepsListening() throws Exception {
+        channel.start();
+        assertThat(connected.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+
+        Revocation revocation = new Revocation(TokenBlacklist.Digest.of("token-b"), 1_700_000_000_000L);
+        server.notify(RevocationChannel.CHANNEL, "garbage");
+        server.notify(RevocationChannel.CHANNEL, revocation.toPayload());
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(revocation);
+    }
+
+    @Test
+    void relistensAndResyncsAfterConnectionLoss() throws Exception {
+        channel.start();
+        assertThat(connected.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+
+        server.dropConnections();
+
+        // onConnected runs again so the owner can reload what it missed
+        assertThat(connected.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(server.connectionCount()).isEqualTo(2);
+
+        Revocation revocation = new Revocation(TokenBlacklist.Digest.of("token-c"), 1_700_000_000_000L);
+        server.notify(RevocationChannel.CHANNEL, revocation.toPayload());
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(revocation);
+    }
+
+    /**
+     * Stand-in for a Postgres server's LISTEN/NOTIFY: connections speak just
+     * enough JDBC (LISTEN statements, unwrap to PGConnection, getNotifications)
+     * for the channel, and notify() fans out to every session listening.
+     */
+    static class NotificationServer {
+
+        private final List<Session> sessions = new CopyOnWriteArrayList<>();
+        private int connections;
+
+        synchronized Connection connect() {
+            connections++;
+            Session session = new Session();
+            sessions.add(session);
+            return session.connection;
+        }
+
+        synchronized int connectionCount() {
+            return connections;
+        }
+
+        void notify(String channel, String payload) {
+            for (Session session : sessions) {
+                if (session.channels.contains(channel)) {
+                    session.pending.add(notification(channel, payload));
+                }
+            }
+        }
+
+        void dropConnections() {
+            sessions.forEach(session -> session.broken = true);
+            sessions.clear();
+        }
+
+        private static PGNotification notification(String channel, String payload) {
+            return (PGNotification) Proxy.newProxyInstance(NotificationServer.class.getClassLoader(),
+                    new Class<?>[] { PGNotification.class }, (proxy, method, args) -> switch (method.getName()) {
+                        case "getName" -> channel;
+                        case "getParameter" -> payload;
+                        case "getPID" -> 0;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private static class Session {
+            final List<String> channels = new CopyOnWriteArrayList<>();
+            final BlockingQueue<PGNotification> pending = new LinkedBlockingQueue<>();
+            final Connection connection;
+            volatile boolean broken;
+
+            Session() {
+                connection = (Connection) Proxy.newProxyInstance(NotificationServer.class.getClassLoader(),
+                        new Class<?>[] { Connection.class, PGConnection.class }, (proxy, method, args) ->
+                                switch (method.getName()) {
+                                    case "createStatement" -> statement();
+                                    case "unwrap" -> proxy;
+                                    case "getNotifications" -> poll(args == null ? 0 : (int) args[0]);
+                                    case "close" -> null;
+                                    default -> throw new UnsupportedOperationException(method.getName());
+                                });
+            }
+
+            private Statement statement() {
+                return (Statement) Proxy.newProxyInstance(NotificationServer.class.getClassLoader(),
+                        new Class<?>[] { Statement.class }, (proxy, method, args) -> switch (method.getName()) {
+                            case "execute" -> {
+                                String sql = (String) args[0];
+                                if (!sql.startsWith("LISTEN ")) {
+                                    throw new SQLException("Unsupported statement: " + sql);
+                                }
+                                channels.add(sql.substring("LISTEN ".length()).trim());
+                                yield false;
+                            }
+                            case "close" -> null;
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        });
+            }
+
+            private PGNotification[] poll(int timeoutMs) throws SQLException, InterruptedException {
+                if (broken) {
+                    throw new SQLException("An I/O error occurred while sending to the backend.");
+                }
+                PGNotification first = pending.poll(timeoutMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    return broken ? failed() : null;
+                }
+                List<PGNotification> batch = new ArrayList<>(List.of(first));
+                pending.drainTo(batch);
+                return batch.toArray(new PGNotification[0]);
+            }
+
+            private static PGNotification[] failed() throws SQLException {
+                throw new SQLException("An I/O error occurred while sending to the backend.");
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.blogpost.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenBlacklistTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final TokenBlacklist blacklist = new TokenBlacklist();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blacklist, "bucketSeconds", 60L);
+        ReflectionTestUtils.setField(blacklist, "expectedEntries", 100);
+        ReflectionTestUtils.setField(blacklist, "falsePositiveRate", 0.01);
+        blacklist.clock = now::get;
+        blacklist.init();
+    }
+
+    @Test
+    void findsAddedTokensOnlyUnderTheirOwnExpiry() {
+        long expiresAt = now.get() + 10 * MINUTE;
+        blacklist.add("token-a", expiresAt);
+
+        assertThat(blacklist.contains("token-a", expiresAt)).isTrue();
+        assertThat(blacklist.contains("token-b", expiresAt)).isFalse();
+        // The expiry selects the bucket, so a token is never looked up under another one
+        assertThat(blacklist.contains("token-a", expiresAt + 5 * MINUTE)).isFalse();
+    }
+
+    @Test
+    void ignoresTokensThatHaveAlreadyExpired() {
+        blacklist.add("expired", now.get());
+
+        assertThat(blacklist.contains("expired", now.get())).isFalse();
+        assertThat(blacklist.stats()).containsEntry("size", 0);
+    }
+
+    @Test
+    void dropsWholeBucketsOnceTheirWindowHasPassed() {
+        long soon = now.get() + MINUTE;
+        long later = now.get() + 30 * MINUTE;
+        blacklist.add("soon-1", soon);
+        blacklist.add("soon-2", soon);
+        blacklist.add("later", later);
+
+        now.addAndGet(2 * MINUTE);
+        blacklist.dropExpired();
+
+        assertThat(blacklist.contains("soon-1", soon)).isFalse();
+        assertThat(blacklist.contains("later", later)).isTrue();
+        assertThat(blacklist.stats()).containsEntry("size", 1).containsEntry("buckets", 1);
+    }
+
+    @Test
+    void keepsTheCurrentBucketUntilItsWindowEnds() {
+        long bucketStart = Math.floorDiv(now.get(), MINUTE) * MINUTE;
+        long expiresAt = bucketStart + MINUTE - 1;
+        blacklist.add("token", expiresAt);
+
+        now.set(expiresAt);
+        blacklist.dropExpired();
+        assertThat(blacklist.stats()).containsEntry("size", 1);
+
+        now.set(bucketStart + MINUTE);
+        blacklist.dropExpired();
+        assertThat(blacklist.stats()).containsEntry("size", 0);
+    }
+
+    @Test
+    void hasNoFalseNegativesWhileGrowingAndExpiring() {
+        List<String> tokens = new ArrayList<>();
+        List<Long> expiries = new ArrayList<>();
+        // Far past the Bloom filter's initial capacity of 100, over several buckets
+        for (int i = 0; i < 5_000; i++) {
+            tokens.add("token-" + i);
+            expiries.add(now.get() + (1 + i % 20) * MINUTE);
+            blacklist.add(tokens.get(i), expiries.get(i));
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            assertThat(blacklist.contains(tokens.get(i), expiries.get(i))).isTrue();
+        }
+
+        // Expire half the buckets, which also rebuilds the filter from the survivors
+        now.addAndGet(11 * MINUTE);
+        blacklist.dropExpired();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            // Entries go a whole bucket at a time, so one expiring within the current minute is kept
+            boolean live = Math.floorDiv(expiries.get(i), MINUTE) >= Math.floorDiv(now.get(), MINUTE);
+            assertThat(blacklist.contains(tokens.get(i), expiries.get(i))).isEqualTo(live);
+        }
+        assertThat(blacklist.stats()).containsEntry("size", 2_500);
+    }
+}
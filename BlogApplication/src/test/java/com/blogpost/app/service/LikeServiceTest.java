@@ -0,0 +1,105 @@
+package com.blogpost.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.blogpost.app.dto.LikeRequest;
+import com.blogpost.app.dto.LikeResponse;
+import com.blogpost.app.entity.Like;
+import com.blogpost.app.entity.Post;
+import com.blogpost.app.entity.User;
+import com.blogpost.app.likes.LikeIndex;
+import com.blogpost.app.repository.LikeRepository;
+import com.blogpost.app.repository.PostRepository;
+import com.blogpost.app.repository.UserRepository;
+import com.blogpost.app.repository.UserStatsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class LikeServiceTest {
+
+    private static final Long POST_ID = 7L;
+    private static final Long USER_ID = 3L;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @Mock
+    private AdminStatsService adminStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Mock
+    private LikeIndex likeIndex;
+
+    @InjectMocks
+    private LikeService likeService;
+
+    private final LikeRequest request = LikeRequest.builder().username("alice").build();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(USER_ID);
+        Post post = new Post();
+        post.setId(POST_ID);
+
+        when(likeWriteBuffer.isEnabled()).thenReturn(false);
+        when(postRepository.findById(POST_ID)).thenReturn(Optional.of(post));
+        when(userRepository.getByUserName("alice")).thenReturn(user);
+        // The index still holds the count from before the toggle, as it only updates after commit
+        lenient().when(likeIndex.isReady()).thenReturn(true);
+        lenient().when(likeIndex.likeCount(POST_ID)).thenReturn(5L);
+    }
+
+    @Test
+    void likeReturnsTheCountIncludingTheNewLike() {
+        when(likeRepository.findByPostIdAndUserId(POST_ID, USER_ID)).thenReturn(Optional.empty());
+        when(postRepository.findLikesCountById(POST_ID)).thenReturn(Optional.of(6));
+
+        LikeResponse response = likeService.toggleLike(POST_ID, request);
+
+        verify(postRepository).adjustLikesCount(POST_ID, 1);
+        assertThat(response.isLiked()).isTrue();
+        assertThat(response.getLikesCount()).isEqualTo(6L);
+        assertThat(response.getCount()).isEqualTo(6L);
+    }
+
+    @Test
+    void unlikeReturnsTheCountWithoutTheRemovedLike() {
+        when(likeRepository.findByPostIdAndUserId(POST_ID, USER_ID)).thenReturn(Optional.of(new Like()));
+        when(postRepository.findLikesCountById(POST_ID)).thenReturn(Optional.of(4));
+
+        LikeResponse response = likeService.toggleLike(POST_ID, request);
+
+        verify(likeRepository).delete(any(Like.class));
+        verify(postRepository).adjustLikesCount(POST_ID, -1);
+        assertThat(response.isLiked()).isFalse();
+        assertThat(response.getLikesCount()).isEqualTo(4L);
+    }
+}
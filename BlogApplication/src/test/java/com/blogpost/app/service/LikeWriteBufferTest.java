@@ -0,0 +1,141 @@
+package com.blogpost.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class LikeWriteBufferTest {
+
+    private static final Long POST_ID = 7L;
+    private static final Long USER_ID = 3L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AdminStatsService adminStatsService;
+
+    @InjectMocks
+    private LikeWriteBuffer likeWriteBuffer;
+
+    // Stands in for posts.likes_count; the stub transaction manager applies the flush to it on commit
+    private final AtomicLong persisted = new AtomicLong(10);
+    private Runnable onCommit = () -> { };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likeWriteBuffer, "enabled", true);
+        ReflectionTestUtils.setField(likeWriteBuffer, "maxFlushAttempts", 5);
+        ReflectionTestUtils.setField(likeWriteBuffer, "transactionTemplate",
+                new TransactionTemplate(new CommitHookTransactionManager()));
+    }
+
+    @Test
+    void aCommittedFlushRetiresTheToggle() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {1});
+        likeWriteBuffer.toggle(POST_ID, USER_ID, () -> false);
+        onCommit = () -> persisted.incrementAndGet();
+
+        likeWriteBuffer.flush();
+
+        assertThat(likeWriteBuffer.pendingState(POST_ID, USER_ID)).isNull();
+        assertThat(likeWriteBuffer.projectedCount(POST_ID, persisted::get)).isEqualTo(11);
+    }
+
+    @Test
+    void aFailedFlushKeepsTheToggle() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        likeWriteBuffer.toggle(POST_ID, USER_ID, () -> false);
+
+        likeWriteBuffer.flush();
+
+        assertThat(likeWriteBuffer.pendingState(POST_ID, USER_ID)).isTrue();
+        assertThat(likeWriteBuffer.projectedCount(POST_ID, persisted::get)).isEqualTo(11);
+    }
+
+    @Test
+    void aCountReadWhileTheFlushCommitsIsNotDoubled() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {1});
+        likeWriteBuffer.toggle(POST_ID, USER_ID, () -> false);
+
+        CountDownLatch firstRead = new CountDownLatch(1);
+        CountDownLatch flushed = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        CompletableFuture<Long> count = new CompletableFuture<>();
+        onCommit = () -> {
+            persisted.incrementAndGet();
+            // The like is now both persisted and still pending; read the count right here
+            new Thread(() -> count.complete(likeWriteBuffer.projectedCount(POST_ID, () -> {
+                if (reads.incrementAndGet() == 1) {
+                    firstRead.countDown();
+                } else {
+                    await(flushed);
+                }
+                return persisted.get();
+            }))).start();
+            await(firstRead);
+        };
+
+        likeWriteBuffer.flush();
+        flushed.countDown();
+
+        assertThat(count.get(5, TimeUnit.SECONDS)).isEqualTo(11);
+        assertThat(reads).hasValue(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Runs the synchronization callbacks like a real transaction manager, with no database behind it
+    private class CommitHookTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            onCommit.run();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
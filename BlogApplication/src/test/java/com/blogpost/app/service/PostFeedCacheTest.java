@@ -0,0 +1,114 @@
+package com.blogpost.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blogpost.app.dto.PostResponse;
+import com.blogpost.app.event.PostChangedEvent;
+import com.blogpost.app.repository.PostRepository;
+import com.blogpost.app.service.PostFeedCache.CachedPage;
+import com.blogpost.app.service.PostFeedCache.FeedKey;
+
+@ExtendWith(MockitoExtension.class)
+class PostFeedCacheTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private PostFeedCache postFeedCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(postFeedCache, "enabled", true);
+        ReflectionTestUtils.setField(postFeedCache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(postFeedCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(postFeedCache, "maxPages", 3);
+        postFeedCache.init();
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        load(FeedKey.all(0, 10), 1L);
+        load(FeedKey.all(0, 10), 1L);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void deletingAnUncachedPostStillShiftsItsFeeds() {
+        load(FeedKey.all(0, 10), 1L);
+        load(FeedKey.user(5L, 1, 10), 1L);
+
+        postFeedCache.onPostChanged(new PostChangedEvent(99L, PostChangedEvent.Type.DELETED, 5L));
+        load(FeedKey.all(0, 10), 1L);
+        load(FeedKey.user(5L, 1, 10), 1L);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void editsDropEveryTagFeed() {
+        load(FeedKey.tag("java", 0, 10), 1L);
+
+        postFeedCache.onPostChanged(new PostChangedEvent(99L, PostChangedEvent.Type.UPDATED, 5L));
+        load(FeedKey.tag("java", 0, 10), 1L);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void aPageLoadedAcrossAChangeIsNotServedAfterIt() {
+        FeedKey key = FeedKey.all(0, 10);
+        postFeedCache.get(key, () -> {
+            loads.incrementAndGet();
+            // The post commits while this (now stale) page is still being read
+            postFeedCache.onPostChanged(new PostChangedEvent(2L, PostChangedEvent.Type.CREATED, 5L));
+            return page(1L);
+        });
+
+        load(key, 2L, 1L);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void profileChangesDropTheAuthorsFeeds() {
+        load(FeedKey.all(0, 10), 1L);
+        load(FeedKey.user(5L, 0, 10), 1L);
+        load(FeedKey.user(6L, 0, 10), 2L);
+
+        postFeedCache.invalidateAuthor(5L);
+        load(FeedKey.all(0, 10), 1L);
+        load(FeedKey.user(5L, 0, 10), 1L);
+
+        assertThat(loads).hasValue(5);
+    }
+
+    private CachedPage load(FeedKey key, Long... postIds) {
+        return postFeedCache.get(key, () -> {
+            loads.incrementAndGet();
+            return page(postIds);
+        });
+    }
+
+    private static CachedPage page(Long... postIds) {
+        List<PostResponse> content = Arrays.stream(postIds)
+                .map(id -> PostResponse.builder().id(id).build())
+                .toList();
+        return new CachedPage(content, content.size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.blogpost.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.blogpost.app.dto.CursorPage;
+import com.blogpost.app.dto.UserProfileResponse;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatsServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @InjectMocks
+    private UserStatsService userStatsService;
+
+    @Test
+    void pagesByKeysetOnTheSortColumn() throws SQLException {
+        returnRows(new long[][] {{9, 40}, {4, 25}, {6, 25}});
+
+        CursorPage<UserProfileResponse> first = userStatsService.findUserProfiles(null, null, null, "posts", null, 2);
+
+        assertThat(first.getContent()).extracting(UserProfileResponse::getId).containsExactly(9L, 4L);
+        assertThat(first.isHasNext()).isTrue();
+
+        userStatsService.findUserProfiles(null, null, null, "posts", first.getNextCursor(), 2);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedParameterJdbcTemplate, times(2))
+                .query(sql.capture(), params.capture(), any(RowMapper.class));
+        assertThat(sql.getValue())
+                .contains("(s.posts_count, s.user_id) < (:afterKey, :afterId)")
+                .contains("ORDER BY s.posts_count DESC, s.user_id DESC LIMIT :limit")
+                .doesNotContain("OFFSET")
+                .doesNotContain("COALESCE");
+        assertThat(params.getValue().getValue("afterKey")).isEqualTo(25L);
+        assertThat(params.getValue().getValue("afterId")).isEqualTo(4L);
+        assertThat(params.getValue().getValue("limit")).isEqualTo(3);
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws SQLException {
+        returnRows(new long[][] {{9, 40}});
+
+        CursorPage<UserProfileResponse> page = userStatsService.findUserProfiles(null, null, null, "likes", null, 2);
+
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsACursorTakenUnderAnotherSort() throws SQLException {
+        returnRows(new long[][] {{9, 40}, {4, 25}});
+        String cursor = userStatsService.findUserProfiles(null, null, null, "posts", null, 1).getNextCursor();
+
+        assertThatThrownBy(() -> userStatsService.findUserProfiles(null, null, null, "comments", cursor, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> userStatsService.findUserProfiles(null, null, null, "posts", "%%%", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsUnknownSorts() {
+        assertThatThrownBy(() -> userStatsService.findUserProfiles(null, null, null, "password", null, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported sort");
+    }
+
+    // Each row is {id, sort key}; the mapper is run over them as the JDBC template would
+    @SuppressWarnings("unchecked")
+    private void returnRows(long[][] rows) throws SQLException {
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(2);
+                    List<Object> mapped = new ArrayList<>();
+                    for (int i = 0; i < rows.length; i++) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getLong("id")).thenReturn(rows[i][0]);
+                        when(rs.getLong("sort_key")).thenReturn(rows[i][1]);
+                        mapped.add(mapper.mapRow(rs, i));
+                    }
+                    return mapped;
+                });
+    }
+}
@@ -0,0 +1,103 @@
+package com.blogpost.app.trending;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class TrendingRankingTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void scoresHalveEveryHalfLife() {
+        TrendingRanking ranking = new TrendingRanking(6, 10, START);
+        ranking.add(1, 8, START);
+
+        assertThat(ranking.snapshot(START + 6 * HOUR).get(1L)).isCloseTo(4.0, within(1e-9));
+        assertThat(ranking.snapshot(START + 18 * HOUR).get(1L)).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void recentActivityOutranksOlderActivityOfTheSameSize() {
+        TrendingRanking ranking = new TrendingRanking(6, 10, START);
+        ranking.add(1, 10, START);
+        ranking.add(2, 10, START + HOUR);
+        // Worth 12 at START + 12h, against 10 / 4 = 2.5 for post 1
+        ranking.add(3, 3, START + 12 * HOUR);
+
+        assertThat(ranking.top(0, 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void olderActivityWinsWhileItHasNotDecayedBelowNewerActivity() {
+        TrendingRanking ranking = new TrendingRanking(6, 10, START);
+        ranking.add(1, 10, START);
+        ranking.add(2, 4, START + 6 * HOUR);
+
+        // At START + 6h post 1 is worth 5, post 2 is worth 4
+        assertThat(ranking.top(0, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void negativePointsLowerAndFinallyRemoveAPost() {
+        TrendingRanking ranking = new TrendingRanking(6, 10, START);
+        ranking.add(1, 5, START);
+        ranking.add(2, 3, START);
+
+        ranking.add(1, -4, START);
+        assertThat(ranking.top(0, 10)).containsExactly(2L, 1L);
+
+        ranking.add(1, -1, START);
+        assertThat(ranking.top(0, 10)).containsExactly(2L);
+        assertThat(ranking.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsTheLowestPostOnceFull() {
+        TrendingRanking ranking = new TrendingRanking(6, 3, START);
+        ranking.add(1, 5, START);
+        ranking.add(2, 1, START);
+        ranking.add(3, 3, START);
+
+        ranking.add(4, 2, START);
+        assertThat(ranking.top(0, 10)).containsExactly(1L, 3L, 4L);
+
+        // Not better than the current lowest: turned away
+        ranking.add(5, 1, START);
+        assertThat(ranking.top(0, 10)).containsExactly(1L, 3L, 4L);
+        assertThat(ranking.size()).isEqualTo(3);
+    }
+
+    @Test
+    void pagesThroughTheRanking() {
+        TrendingRanking ranking = new TrendingRanking(6, 10, START);
+        for (long id = 1; id <= 5; id++) {
+            ranking.add(id, id, START);
+        }
+
+        assertThat(ranking.top(1, 2)).containsExactly(4L, 3L);
+        assertThat(ranking.top(4, 10)).containsExactly(1L);
+        assertThat(ranking.top(5, 10)).isEmpty();
+    }
+
+    @Test
+    void rebaseKeepsOrderAndDecayedScoresAndDropsFadedPosts() {
+        TrendingRanking ranking = new TrendingRanking(6, 10, START);
+        ranking.add(1, 100, START);
+        ranking.add(2, 40, START + 2 * HOUR);
+        ranking.add(3, 0.5, START);
+
+        // Post 3 is worth 0.125 at START + 12h
+        int dropped = ranking.rebase(START + 12 * HOUR, 0.2);
+
+        assertThat(dropped).isEqualTo(1);
+        assertThat(ranking.top(0, 10)).containsExactly(1L, 2L);
+        assertThat(ranking.snapshot(START + 12 * HOUR).get(1L)).isCloseTo(25.0, within(1e-9));
+
+        // Points added after the rebase combine with the rescaled scores
+        ranking.add(2, 20, START + 12 * HOUR);
+        assertThat(ranking.top(0, 10)).containsExactly(2L, 1L);
+    }
+}
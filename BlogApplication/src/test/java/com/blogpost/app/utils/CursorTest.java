@@ -0,0 +1,64 @@
+package com.blogpost.app.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.blogpost.app.dto.ErrorResponse;
+import com.blogpost.app.exception.GlobalExceptionHandler;
+
+class CursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        Cursor cursor = Cursor.of(LocalDateTime.of(2024, 3, 9, 14, 5, 7, 123_456_000), 987_654_321L);
+
+        assertThat(Cursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesToUrlSafeTextWithoutPadding() {
+        String encoded = Cursor.of(LocalDateTime.of(2024, 1, 1, 0, 0), 1L).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorStartsFromTheNewestRow() {
+        assertThat(Cursor.decode(null)).isEqualTo(Cursor.start());
+        assertThat(Cursor.decode("")).isEqualTo(Cursor.start());
+        assertThat(Cursor.decode("  ")).isEqualTo(Cursor.start());
+        assertThat(Cursor.start().createdAt()).isAfter(LocalDateTime.now());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "not base64!", "bm8tc2VwYXJhdG9y", "fDQy", "MjAyNC0wMS0wMVQwMDowMHx4" })
+    void rejectsMalformedCursors(String token) {
+        // Plain garbage, "no-separator", "|42" and "2024-01-01T00:00|x"
+        assertThatThrownBy(() -> Cursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        String token = Base64.getUrlEncoder().encodeToString("yesterday|1".getBytes(StandardCharsets.UTF_8));
+        IllegalArgumentException error = catchIllegalArgumentException(() -> Cursor.decode(token));
+
+        ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler().handleIllegalArgumentException(error);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getStatus()).isEqualTo(400);
+        assertThat(response.getBody().getMessage()).isEqualTo("Invalid cursor");
+    }
+}
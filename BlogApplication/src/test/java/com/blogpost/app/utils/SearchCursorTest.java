@@ -0,0 +1,36 @@
+package com.blogpost.app.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SearchCursorTest {
+
+    @Test
+    void decodesTheExactScoreItEncodes() {
+        SearchCursor cursor = SearchCursor.of(0.1f + 0.2f, 42L);
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertThat(Float.floatToIntBits(decoded.score())).isEqualTo(Float.floatToIntBits(cursor.score()));
+        assertThat(decoded.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void missingCursorStartsBeforeEveryHit() {
+        assertThat(SearchCursor.decode(null)).isEqualTo(SearchCursor.start());
+        assertThat(SearchCursor.decode(" ")).isEqualTo(SearchCursor.start());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "not base64!", "NDI", "enp8MQ", "N2ZjMDAwMDB8MQ" })
+    void rejectsMalformedCursors(String token) {
+        // Garbage, "42", "zz|1" and a NaN score "7fc00000|1"
+        assertThatThrownBy(() -> SearchCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}